@@ -0,0 +1,88 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferUsageView;
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageRepository;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class InMemoryOfferStore {
+
+    private final List<Offer> offers;
+    private final Map<Long, Long> totalUsage = new HashMap<>();
+    private final Map<String, Map<Long, Long>> userUsage = new HashMap<>();
+
+    InMemoryOfferStore(List<Offer> offers) {
+        this.offers = List.copyOf(offers);
+    }
+
+    void recordUsage(Long offerId, String userId, long count) {
+        totalUsage.merge(offerId, count, Long::sum);
+        userUsage.computeIfAbsent(userId, _ -> new HashMap<>()).merge(offerId, count, Long::sum);
+    }
+
+    OfferRepository offerRepository() {
+        return stub(OfferRepository.class, (_, method, _) -> switch (method.getName()) {
+            case "findAll" -> offers;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    OfferRedemptionRepository offerRedemptionRepository() {
+        return stub(OfferRedemptionRepository.class, (_, method, _) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    OfferUserUsageRepository offerUserUsageRepository() {
+        return stub(OfferUserUsageRepository.class, (_, method, args) -> switch (method.getName()) {
+            case "findUsageByOfferIds" -> findUsageByOfferIds((Collection<Long>) args[0], (String) args[1]);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private List<OfferUsageView> findUsageByOfferIds(Collection<Long> offerIds, String userId) {
+        Map<Long, Long> usageForUser = userUsage.getOrDefault(userId, Map.of());
+        List<OfferUsageView> views = new ArrayList<>(offerIds.size());
+        for (Long offerId : offerIds) {
+            views.add(new UsageView(offerId, totalUsage.getOrDefault(offerId, 0L), usageForUser.getOrDefault(offerId, 0L)));
+        }
+        return views;
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "toString" -> "InMemory" + type.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private record UsageView(Long offerId, Long totalUsage, Long userUsage) implements OfferUsageView {
+
+        @Override
+        public Long getOfferId() {
+            return offerId;
+        }
+
+        @Override
+        public Long getTotalUsage() {
+            return totalUsage;
+        }
+
+        @Override
+        public Long getUserUsage() {
+            return userUsage;
+        }
+    }
+}
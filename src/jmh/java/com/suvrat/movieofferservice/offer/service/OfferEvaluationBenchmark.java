@@ -0,0 +1,138 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.cache.EvaluateResultCache;
+import com.suvrat.movieofferservice.offer.cache.OfferCodeCache;
+import com.suvrat.movieofferservice.offer.catalog.OfferCatalogIndex;
+import com.suvrat.movieofferservice.offer.dto.EvaluateOffersRequest;
+import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.metrics.OfferMetrics;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.model.OfferOrigin;
+import com.suvrat.movieofferservice.offer.model.OfferType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
+
+/**
+ * Evaluates one booking context against a synthetic in-memory catalog, without a Spring context or database.
+ * {@code TARGETED} catalogs spread offers across movies, theaters and payment partners so the index prunes most
+ * of them; {@code WILDCARD} catalogs make every offer a candidate, so each one goes through eligibility checks and
+ * discount calculation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OfferEvaluationBenchmark {
+
+    private static final String[] PAYMENT_PARTNERS = {"CARD", "UPI", "WALLET", "NETBANKING"};
+
+    @Param({"100", "10000", "100000"})
+    private int catalogSize;
+
+    @Param({"TARGETED", "WILDCARD"})
+    private String catalogShape;
+
+    /** Top-K size; 0 evaluates and sorts every eligible offer. */
+    @Param({"0", "5"})
+    private int limit;
+
+    /** Catalog size from which the columnar scan replaces the bucket index; the large value keeps the buckets. */
+    @Param({"10000", "2147483647"})
+    private int columnarScanThreshold;
+
+    private OfferService offerService;
+    private EvaluateOffersRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        boolean wildcard = "WILDCARD".equals(catalogShape);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Offer> offers = new ArrayList<>(catalogSize);
+        for (long id = 1; id <= catalogSize; id++) {
+            offers.add(syntheticOffer(id, random, wildcard, now));
+        }
+        InMemoryOfferStore store = new InMemoryOfferStore(offers);
+        for (Offer offer : offers) {
+            if (random.nextInt(10) < 3) {
+                store.recordUsage(offer.getId(), "user-" + random.nextInt(50), 1 + random.nextInt(3));
+            }
+        }
+
+        OfferProperties offerProperties = new OfferProperties();
+        offerProperties.getEvaluate().setColumnarScanThreshold(columnarScanThreshold);
+        offerProperties.getResultCache().setEnabled(false);
+        OfferMetrics offerMetrics = new OfferMetrics(new SimpleMeterRegistry());
+        offerService = new OfferService(
+                store.offerRepository(),
+                store.offerRedemptionRepository(),
+                store.offerUserUsageRepository(),
+                new OfferCatalogIndex(store.offerRepository(), new ConcurrentTaskScheduler(), offerProperties,
+                        offerMetrics, new OfferCodeCache(store.offerRepository(), offerProperties)),
+                null,
+                null,
+                new EvaluateResultCache(offerProperties),
+                new EligibilityChain(offerProperties),
+                null,
+                offerProperties,
+                offerMetrics,
+                null
+        );
+        request = new EvaluateOffersRequest("user-7", "movie-7", "theater-7", "CARD", null, new BigDecimal("750"),
+                limit == 0 ? null : limit);
+        offerService.evaluateOffers(request);
+    }
+
+    @Benchmark
+    public List<EvaluatedOfferResponse> evaluateOffers() {
+        return offerService.evaluateOffers(request);
+    }
+
+    private Offer syntheticOffer(long id, SplittableRandom random, boolean wildcard, LocalDateTime now) {
+        boolean percentage = random.nextBoolean();
+        boolean expired = random.nextInt(20) == 0;
+        return Offer.builder()
+                .id(id)
+                .code("BENCH" + id)
+                .title("Benchmark offer " + id)
+                .offerType(percentage ? OfferType.PERCENTAGE : OfferType.FLAT)
+                .discountValue(BigDecimal.valueOf(percentage ? 5 + random.nextInt(30) : 20 + random.nextInt(200)))
+                .maxDiscount(percentage ? BigDecimal.valueOf(50 + random.nextInt(250)) : null)
+                .minOrderAmount(BigDecimal.valueOf(random.nextInt(600)))
+                .validFrom(now.minusDays(1 + random.nextInt(30)))
+                .validTill(expired ? now.minusHours(1) : now.plusDays(1 + random.nextInt(30)))
+                .totalUsageLimit(random.nextBoolean() ? 1_000 : null)
+                .perUserUsageLimit(random.nextBoolean() ? 3 : Integer.MAX_VALUE)
+                .active(true)
+                .applicableMovieId(wildcard || random.nextInt(20) == 0 ? null : "movie-" + random.nextInt(1_000))
+                .applicableTheaterId(wildcard || random.nextInt(3) == 0 ? null : "theater-" + random.nextInt(200))
+                .paymentPartner(wildcard || random.nextBoolean() ? null : PAYMENT_PARTNERS[random.nextInt(PAYMENT_PARTNERS.length)])
+                .offerOrigin(OfferOrigin.INTERNAL)
+                .flashSale(false)
+                .redeemedCount(0L)
+                .build();
+    }
+}
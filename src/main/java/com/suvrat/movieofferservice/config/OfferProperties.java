@@ -0,0 +1,105 @@
+package com.suvrat.movieofferservice.config;
+
+import com.suvrat.movieofferservice.offer.service.RedemptionStrategy;
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "offers")
+public class OfferProperties {
+
+    private final Evaluate evaluate = new Evaluate();
+    private final Redemption redemption = new Redemption();
+    private final FlashSale flashSale = new FlashSale();
+    private final Applied applied = new Applied();
+    private final Lifecycle lifecycle = new Lifecycle();
+    private final CodeCache codeCache = new CodeCache();
+    private final Idempotency idempotency = new Idempotency();
+    private final Database database = new Database();
+    private final ResultCache resultCache = new ResultCache();
+
+    @Getter
+    @Setter
+    public static class Evaluate {
+
+        private int maxBatchSize = 500;
+        private long stageReorderInterval = 10_000;
+        private int columnarScanThreshold = 10_000;
+        private int parallelScanThreshold = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Redemption {
+
+        private RedemptionStrategy strategy = RedemptionStrategy.CONDITIONAL_UPDATE;
+        private int maxAttempts = 4;
+        private Duration initialBackoff = Duration.ofMillis(5);
+        private Duration maxBackoff = Duration.ofMillis(100);
+        private int maxBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class FlashSale {
+
+        private int stripes = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Getter
+    @Setter
+    public static class Applied {
+
+        private int defaultPageSize = 50;
+        private int maxPageSize = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Lifecycle {
+
+        private Duration expirySweepInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class CodeCache {
+
+        private long maximumSize = 100_000;
+        private Duration negativeTtl = Duration.ofSeconds(30);
+        private double falsePositiveRate = 0.01;
+        private int missLookupsPerSecond = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+
+        private long expectedBookings = 1_000_000;
+        private double falsePositiveRate = 0.01;
+        private long recentResponses = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Database {
+
+        private int maxConcurrency;
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Per instance: a redemption on another instance stays invisible to this cache for up to {@code ttl}.
+     */
+    @Getter
+    @Setter
+    public static class ResultCache {
+
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(5);
+        private long maximumSize = 10_000;
+    }
+}
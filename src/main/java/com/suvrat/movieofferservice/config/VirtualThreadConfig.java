@@ -0,0 +1,50 @@
+package com.suvrat.movieofferservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true}, which moves request handling onto virtual threads.
+ * There is then no thread pool left to limit how many requests reach the database at once, so the data source
+ * is wrapped in a {@link BoundedDataSource} sized to the connection pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor boundedDataSourcePostProcessor(ObjectProvider<OfferProperties> offerProperties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                OfferProperties.Database database = offerProperties.getObject().getDatabase();
+                int maxConcurrency = database.getMaxConcurrency() > 0
+                        ? database.getMaxConcurrency()
+                        : poolSize(dataSource);
+                return new BoundedDataSource(dataSource, maxConcurrency, database.getAcquireTimeout());
+            }
+        };
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException exception) {
+            throw new IllegalStateException("Cannot read the connection pool size", exception);
+        }
+        throw new IllegalStateException("Set offers.database.max-concurrency for a non-Hikari data source");
+    }
+}
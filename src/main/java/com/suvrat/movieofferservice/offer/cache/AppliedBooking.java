@@ -0,0 +1,20 @@
+package com.suvrat.movieofferservice.offer.cache;
+
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
+import java.math.BigDecimal;
+
+/**
+ * A recently applied booking: the normalized code, user and order amount it was applied with, and the response
+ * that was returned, so that an identical retry can be answered with the same response.
+ */
+public record AppliedBooking(
+        String code,
+        String userId,
+        BigDecimal orderAmount,
+        ApplyOfferResponse response
+) {
+
+    public boolean matches(String code, String userId, BigDecimal orderAmount) {
+        return this.code.equals(code) && this.userId.equals(userId) && this.orderAmount.compareTo(orderAmount) == 0;
+    }
+}
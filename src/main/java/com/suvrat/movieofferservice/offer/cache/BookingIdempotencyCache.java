@@ -0,0 +1,92 @@
+package com.suvrat.movieofferservice.offer.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers "has this booking already been used?" without a query where it can. A Bloom filter over every booking id
+ * in {@code offer_redemptions} proves most new bookings unused, and the most recent applies are kept so a client
+ * retry gets its original response back. The unique constraint on {@code booking_id} still backs both up.
+ */
+@Component
+public class BookingIdempotencyCache {
+
+    private final OfferRedemptionRepository offerRedemptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OfferProperties.Idempotency properties;
+    private final Cache<String, AppliedBooking> recentBookings;
+
+    private volatile BloomFilter knownBookings;
+    private volatile boolean complete;
+
+    public BookingIdempotencyCache(
+            OfferRedemptionRepository offerRedemptionRepository,
+            TransactionTemplate transactionTemplate,
+            OfferProperties offerProperties
+    ) {
+        this.offerRedemptionRepository = offerRedemptionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = offerProperties.getIdempotency();
+        this.recentBookings = Caffeine.newBuilder().maximumSize(properties.getRecentResponses()).build();
+    }
+
+    /**
+     * Bookings recorded while the scan runs go into the new filter as well, and a booking committed before the
+     * filter is published is seen by the scan, so none is missed. Until the scan ends every booking is reported as
+     * possibly used.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        complete = false;
+        long expected = Math.max(properties.getExpectedBookings(), 2 * offerRedemptionRepository.count());
+        BloomFilter filter = new BloomFilter(expected, properties.getFalsePositiveRate());
+        knownBookings = filter;
+        recentBookings.invalidateAll();
+        transactionTemplate.executeWithoutResult(_ -> {
+            try (Stream<String> bookingIds = offerRedemptionRepository.streamAllBookingIds()) {
+                bookingIds.forEach(filter::add);
+            }
+        });
+        complete = true;
+    }
+
+    /**
+     * Returns {@code false} only when the booking id has certainly never been redeemed.
+     */
+    public boolean mightExist(String bookingId) {
+        BloomFilter filter = knownBookings;
+        return filter == null || !complete || filter.mightContain(bookingId);
+    }
+
+    public Optional<AppliedBooking> recent(String bookingId) {
+        return Optional.ofNullable(recentBookings.getIfPresent(bookingId));
+    }
+
+    /**
+     * Call once the redemption has committed; a rolled-back apply must not be replayed.
+     */
+    public void record(AppliedBooking appliedBooking) {
+        markUsed(appliedBooking.response().bookingId());
+        recentBookings.put(appliedBooking.response().bookingId(), appliedBooking);
+    }
+
+    /**
+     * Makes later checks for the booking go to the database, e.g. after an insert hit the unique constraint
+     * because another instance redeemed it.
+     */
+    public void markUsed(String bookingId) {
+        BloomFilter filter = knownBookings;
+        if (filter != null) {
+            filter.add(bookingId);
+        }
+    }
+}
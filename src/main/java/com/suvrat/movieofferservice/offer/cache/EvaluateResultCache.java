@@ -0,0 +1,115 @@
+package com.suvrat.movieofferservice.offer.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Recent {@code evaluateOffers} results per user and booking context. Entries expire after
+ * {@code offers.result-cache.ttl} and are keyed by the catalog version and generation, so a catalog refresh or a
+ * validity boundary retires them. Usage changes are pushed in: a redemption evicts the redeeming user's entries, and
+ * an offer selling out evicts everything, because its total usage limit is shared by all users.
+ *
+ * <p>Evicting a user does not scan the cache: entries are stored under the user's current eviction stamp, and
+ * {@link #evictUser} moves that stamp on, so older entries are never read again and age out with the TTL. Stamps
+ * are drawn from one counter and kept for twice the TTL, longer than any entry stored under the previous one.
+ *
+ * <p>A result computed while an eviction ran may predate it, so {@link #put} drops the entry when any eviction
+ * happened after the caller took its {@link #stamp()}.
+ *
+ * <p>The cache is per instance: a redemption on another instance is not seen here until the entry expires.
+ */
+@Component
+public class EvaluateResultCache {
+
+    private final boolean enabled;
+    private final Cache<StampedKey, List<EvaluatedOfferResponse>> results;
+    private final Cache<String, Long> userStamps;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EvaluateResultCache(OfferProperties offerProperties) {
+        OfferProperties.ResultCache properties = offerProperties.getResultCache();
+        this.enabled = properties.isEnabled() && properties.getMaximumSize() > 0;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        this.userStamps = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl().multipliedBy(2))
+                .build();
+    }
+
+    public Optional<List<EvaluatedOfferResponse>> get(Key key) {
+        return enabled ? Optional.ofNullable(results.getIfPresent(stamped(key))) : Optional.empty();
+    }
+
+    /**
+     * Take before reading any usage counts for the result that will be passed to {@link #put}.
+     */
+    public long stamp() {
+        return evictions.get();
+    }
+
+    public void put(Key key, List<EvaluatedOfferResponse> result, long stamp) {
+        if (!enabled) {
+            return;
+        }
+        StampedKey stamped = stamped(key);
+        results.put(stamped, result);
+        if (evictions.get() != stamp) {
+            results.invalidate(stamped);
+        }
+    }
+
+    /**
+     * Call after a redemption by {@code userId} has committed.
+     */
+    public void evictUser(String userId) {
+        userStamps.put(userId.trim(), evictions.incrementAndGet());
+    }
+
+    /**
+     * Call after a change that can affect every user, such as an offer reaching its total usage limit.
+     */
+    public void evictAll() {
+        evictions.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    /**
+     * Identifies one booking context. Dimensions are dictionary ids of the catalog snapshot named by
+     * {@code catalogVersion}, and the amount is compared by value, so requests that differ only in case, whitespace
+     * or trailing zeros share an entry.
+     */
+    public record Key(
+            String userId,
+            BookingDimensions dimensions,
+            BigDecimal orderAmount,
+            Integer limit,
+            long catalogVersion,
+            long catalogGeneration
+    ) {
+
+        public static Key of(String userId, BookingDimensions dimensions, BigDecimal orderAmount, Integer limit,
+                             long catalogVersion, long catalogGeneration) {
+            return new Key(userId.trim(), dimensions, orderAmount.stripTrailingZeros(), limit, catalogVersion,
+                    catalogGeneration);
+        }
+    }
+
+    private StampedKey stamped(Key key) {
+        Long userStamp = userStamps.getIfPresent(key.userId());
+        return new StampedKey(key, userStamp == null ? 0 : userStamp);
+    }
+
+    private record StampedKey(Key key, long userStamp) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.suvrat.movieofferservice.offer.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves a normalized offer code or third-party source offer code to an offer id. Codes the database does not know
+ * are cached negatively for a short TTL.
+ *
+ * <p>A Bloom filter over every code in the last catalog load, plus codes registered since, separates the codes this
+ * instance has seen from the ones it has not. Codes inserted by another instance or directly into the database are
+ * outside the filter until the next catalog load, so a filter miss is not trusted on its own: it is checked against the
+ * database at most {@code missLookupsPerSecond} times a second and the answer cached like any other lookup. Beyond
+ * that rate a miss is turned away without a query and without being cached.
+ */
+@Component
+public class OfferCodeCache {
+
+    private final OfferRepository offerRepository;
+    private final OfferProperties.CodeCache properties;
+    private final Cache<String, Long> offerIds;
+    private final Cache<String, Boolean> unknownCodes;
+
+    private volatile BloomFilter knownCodes;
+    private long missWindow;
+    private int missLookups;
+
+    public OfferCodeCache(OfferRepository offerRepository, OfferProperties offerProperties) {
+        this.offerRepository = offerRepository;
+        this.properties = offerProperties.getCodeCache();
+        this.offerIds = Caffeine.newBuilder().maximumSize(properties.getMaximumSize()).build();
+        this.unknownCodes = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getNegativeTtl())
+                .build();
+    }
+
+    /**
+     * Called by the catalog with every offer it loaded; leaves room for offers registered before the next load.
+     */
+    public void rebuild(List<Offer> offers) {
+        BloomFilter filter = new BloomFilter(2L * offers.size() + 1_000, properties.getFalsePositiveRate());
+        for (Offer offer : offers) {
+            filter.add(offer.getCode());
+            if (offer.getSourceOfferCode() != null) {
+                filter.add(offer.getSourceOfferCode());
+            }
+        }
+        offerIds.invalidateAll();
+        unknownCodes.invalidateAll();
+        knownCodes = filter;
+    }
+
+    public Optional<Long> resolve(String code) {
+        Long offerId = offerIds.getIfPresent(code);
+        if (offerId != null) {
+            return Optional.of(offerId);
+        }
+        if (unknownCodes.getIfPresent(code) != null) {
+            return Optional.empty();
+        }
+        BloomFilter filter = knownCodes;
+        if (filter != null && !filter.mightContain(code) && !tryMissLookup()) {
+            return Optional.empty();
+        }
+
+        List<Long> matches = offerRepository.findIdsByCode(code);
+        if (matches.isEmpty()) {
+            unknownCodes.put(code, Boolean.TRUE);
+            return Optional.empty();
+        }
+        if (filter != null) {
+            filter.add(code);
+        }
+        offerIds.put(code, matches.getFirst());
+        return Optional.of(matches.getFirst());
+    }
+
+    public void register(Offer offer) {
+        BloomFilter filter = knownCodes;
+        if (filter != null) {
+            filter.add(offer.getCode());
+        }
+        offerIds.put(offer.getCode(), offer.getId());
+        unknownCodes.invalidate(offer.getCode());
+        if (offer.getSourceOfferCode() != null) {
+            if (filter != null) {
+                filter.add(offer.getSourceOfferCode());
+            }
+            offerIds.invalidate(offer.getSourceOfferCode());
+            unknownCodes.invalidate(offer.getSourceOfferCode());
+        }
+    }
+
+    public void evict(String code) {
+        offerIds.invalidate(code);
+    }
+
+    private synchronized boolean tryMissLookup() {
+        long window = System.nanoTime() / 1_000_000_000L;
+        if (window != missWindow) {
+            missWindow = window;
+            missLookups = 0;
+        }
+        return missLookups++ < properties.getMissLookupsPerSecond();
+    }
+}
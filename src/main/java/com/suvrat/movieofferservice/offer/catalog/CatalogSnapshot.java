@@ -0,0 +1,52 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.offer.dto.OfferListing;
+import com.suvrat.movieofferservice.offer.dto.OfferResponse;
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Everything the read paths need from one load of the offers table: the full listing, already mapped to
+ * responses, and the evaluation index over the active offers. Published as a whole by {@link OfferCatalogIndex};
+ * {@link #version()} increases with every publication.
+ */
+public final class CatalogSnapshot {
+
+    private final long version;
+    private final OfferListing listing;
+    private final OfferIndex index;
+
+    CatalogSnapshot(long version, List<Offer> offers, LocalDateTime now) {
+        this.version = version;
+        this.listing = new OfferListing(version, offers.stream()
+                .sorted(Comparator.comparing(Offer::getId))
+                .map(OfferResponse::from)
+                .toList());
+        this.index = new OfferIndex(offers.stream().filter(offer -> Boolean.TRUE.equals(offer.getActive())).toList(),
+                now);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public OfferListing listing() {
+        return listing;
+    }
+
+    /**
+     * Encodes a booking against this snapshot's dictionary. The result only matches offers of this snapshot, so pass
+     * the same snapshot to {@link OfferCatalogIndex#eligibleOffers}.
+     */
+    public BookingDimensions bookingDimensions(String movieId, String theaterId, String paymentPartner, String userId,
+                                               String sourceApp) {
+        return BookingDimensions.of(index.dictionary(), movieId, theaterId, paymentPartner, userId, sourceApp);
+    }
+
+    OfferIndex index() {
+        return index;
+    }
+}
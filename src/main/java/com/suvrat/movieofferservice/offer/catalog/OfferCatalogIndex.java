@@ -0,0 +1,121 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.cache.OfferCodeCache;
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.metrics.OfferMetrics;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.pricing.OrderAmount;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class OfferCatalogIndex {
+
+    private final OfferRepository offerRepository;
+    private final TaskScheduler taskScheduler;
+    private final OfferProperties offerProperties;
+    private final OfferMetrics offerMetrics;
+    private final OfferCodeCache offerCodeCache;
+    private final ColumnScanner columnScanner = ColumnScanner.create();
+
+    private volatile CatalogSnapshot snapshot;
+    private long version;
+    private volatile long generation;
+    private ScheduledFuture<?> nextBoundary;
+
+    /**
+     * Loads the offers table once and publishes a new snapshot, rebuilding the code filter from the same rows. Call
+     * after every committed change to an offer; readers keep whichever snapshot they already hold.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<Offer> offers = offerRepository.findAll();
+        CatalogSnapshot published = new CatalogSnapshot(++version, offers, now);
+        offerMetrics.record(OfferMetrics.Stage.CATALOG_LOAD, started);
+        offerCodeCache.rebuild(offers);
+        snapshot = published;
+        scheduleNextBoundary(published.index().advance(now));
+        generation++;
+    }
+
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * Live offers of {@code catalog} that pass the in-memory eligibility stages, in discount-ceiling order.
+     * {@code booking} must have been encoded by the same snapshot. Catalogs of at least
+     * {@code offers.evaluate.columnar-scan-threshold} offers are filtered in one pass over the columnar snapshot;
+     * smaller ones use the dimension buckets and run the unindexed stages of the chain on each candidate. Both paths
+     * record in {@code eligibility} what every stage removed, and the live set is counted as scanned.
+     */
+    public List<Offer> eligibleOffers(
+            CatalogSnapshot catalog,
+            BookingDimensions booking,
+            OrderAmount orderAmount,
+            EligibilityChain.Run eligibility
+    ) {
+        OfferIndex current = catalog.index();
+        offerMetrics.recordScanned(current.liveCount());
+        OfferProperties.Evaluate evaluate = offerProperties.getEvaluate();
+        if (current.size() >= evaluate.getColumnarScanThreshold()) {
+            return current.scan(booking, orderAmount.floorCents(), columnScanner, evaluate.getParallelScanThreshold(),
+                    eligibility);
+        }
+        return current.candidates(booking, eligibility).stream()
+                .filter(offer -> eligibility.matchesUnindexed(offer, booking, orderAmount))
+                .toList();
+    }
+
+    /**
+     * Increases after every change to what {@link #eligibleOffers} can return: a new snapshot or a validity boundary
+     * moving offers in or out of the live set. It is bumped after the change is visible, so a reader that sees a
+     * generation also sees the catalog state it stands for.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public int liveOfferCount() {
+        CatalogSnapshot current = snapshot;
+        return current == null ? 0 : current.index().liveCount();
+    }
+
+    private synchronized void advance(CatalogSnapshot scheduledFor) {
+        if (scheduledFor == snapshot) {
+            scheduleNextBoundary(scheduledFor.index().advance(LocalDateTime.now()));
+            generation++;
+        }
+    }
+
+    private void scheduleNextBoundary(LocalDateTime at) {
+        if (nextBoundary != null) {
+            nextBoundary.cancel(false);
+            nextBoundary = null;
+        }
+        if (at != null) {
+            CatalogSnapshot scheduledFor = snapshot;
+            nextBoundary = taskScheduler.schedule(() -> advance(scheduledFor),
+                    at.atZone(ZoneId.systemDefault()).toInstant());
+        }
+    }
+}
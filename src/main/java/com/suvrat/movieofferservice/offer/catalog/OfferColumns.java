@@ -0,0 +1,120 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.matching.DimensionDictionary;
+import com.suvrat.movieofferservice.offer.matching.EligibilityStage;
+import com.suvrat.movieofferservice.offer.matching.OfferDimensions;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Struct-of-arrays copy of the filter columns of an {@link OfferIndex}, in the same positions, so the in-memory
+ * eligibility checks can run as one sequential pass over primitive arrays instead of one {@link Offer} at a time.
+ * Validity is not copied: the index's live set already tracks it.
+ */
+final class OfferColumns {
+
+    /** The columns in the order a scan tests them; rejection counts are indexed the same way. */
+    static final List<EligibilityStage> STAGES = List.of(EligibilityStage.MOVIE, EligibilityStage.THEATER,
+            EligibilityStage.PAYMENT_PARTNER, EligibilityStage.ASSIGNED_USER, EligibilityStage.SOURCE_APP,
+            EligibilityStage.MIN_ORDER);
+
+    private static final int MIN_CHUNK_SIZE = 4_096;
+
+    final int size;
+    final int[] movie;
+    final int[] theater;
+    final int[] paymentPartner;
+    final int[] assignedUser;
+    final int[] sourceApp;
+    final long[] minOrderCents;
+
+    OfferColumns(List<Offer> offers) {
+        size = offers.size();
+        movie = new int[size];
+        theater = new int[size];
+        paymentPartner = new int[size];
+        assignedUser = new int[size];
+        sourceApp = new int[size];
+        minOrderCents = new long[size];
+        for (int position = 0; position < size; position++) {
+            Offer offer = offers.get(position);
+            OfferDimensions dimensions = offer.getDimensions();
+            movie[position] = dimensions.movie();
+            theater[position] = dimensions.theater();
+            paymentPartner[position] = dimensions.paymentPartner();
+            assignedUser[position] = dimensions.assignedUser();
+            sourceApp[position] = dimensions.sourceApp();
+            minOrderCents[position] = offer.getPricing().minOrderCents();
+        }
+    }
+
+    /**
+     * Returns the positions of {@code live} whose targeting matches {@code booking} and whose minimum order is at
+     * most {@code orderCents}, and adds to {@code rejected} how many live offers each of {@link #STAGES} removed.
+     * From {@code parallelThreshold} offers up the range is split into chunks of whole 64-bit words scanned on the
+     * common fork-join pool; chunks write disjoint words, so the merge is the word array itself.
+     */
+    BitSet scan(
+            BookingDimensions booking,
+            long orderCents,
+            BitSet live,
+            ColumnScanner scanner,
+            int parallelThreshold,
+            long[] rejected
+    ) {
+        long[] words = Arrays.copyOf(live.toLongArray(), (size + Long.SIZE - 1) / Long.SIZE);
+        if (size < parallelThreshold) {
+            scanner.scan(this, booking, orderCents, 0, size, words, rejected);
+        } else {
+            int chunks = Math.max(1, Runtime.getRuntime().availableProcessors() * 4);
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, alignToWord((size + chunks - 1) / chunks));
+            long[][] rejectedPerChunk = new long[(size + chunkSize - 1) / chunkSize][];
+            IntStream.range(0, rejectedPerChunk.length).parallel().forEach(chunk -> {
+                int from = chunk * chunkSize;
+                long[] chunkRejected = new long[STAGES.size()];
+                scanner.scan(this, booking, orderCents, from, Math.min(size, from + chunkSize), words, chunkRejected);
+                rejectedPerChunk[chunk] = chunkRejected;
+            });
+            for (long[] chunkRejected : rejectedPerChunk) {
+                for (int i = 0; i < rejected.length; i++) {
+                    rejected[i] += chunkRejected[i];
+                }
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Index into {@link #STAGES} of the first column that rejects {@code position}, or -1 when it matches.
+     */
+    int rejectingStage(int position, BookingDimensions booking, long orderCents) {
+        if (!matches(movie[position], booking.movie())) {
+            return 0;
+        }
+        if (!matches(theater[position], booking.theater())) {
+            return 1;
+        }
+        if (!matches(paymentPartner[position], booking.paymentPartner())) {
+            return 2;
+        }
+        if (!matches(assignedUser[position], booking.user())) {
+            return 3;
+        }
+        if (!matches(sourceApp[position], booking.sourceApp())) {
+            return 4;
+        }
+        return minOrderCents[position] <= orderCents ? -1 : 5;
+    }
+
+    private static boolean matches(int rule, int requested) {
+        return rule == DimensionDictionary.ANY || rule == requested;
+    }
+
+    private static int alignToWord(int value) {
+        return (value + Long.SIZE - 1) / Long.SIZE * Long.SIZE;
+    }
+}
@@ -0,0 +1,41 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Component
+@RequiredArgsConstructor
+public class OfferExpirySweeper {
+
+    private final OfferRepository offerRepository;
+    private final OfferCatalogIndex offerCatalogIndex;
+    private final OfferProperties offerProperties;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Duration interval = offerProperties.getLifecycle().getExpirySweepInterval();
+        if (interval.isPositive()) {
+            taskScheduler.scheduleWithFixedDelay(this::sweep, Instant.now().plus(interval), interval);
+        }
+    }
+
+    public int sweep() {
+        Integer rows = transactionTemplate.execute(_ -> offerRepository.deactivateExpired(LocalDateTime.now()));
+        if (rows != null && rows > 0) {
+            offerCatalogIndex.refresh();
+        }
+        return rows == null ? 0 : rows;
+    }
+}
@@ -0,0 +1,184 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.matching.DimensionDictionary;
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.matching.EligibilityStage;
+import com.suvrat.movieofferservice.offer.matching.OfferDimensions;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.pricing.OfferPricing;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+final class OfferIndex {
+
+    private final List<Offer> offers;
+    private final DimensionDictionary dictionary = new DimensionDictionary();
+    private final Dimension movie = new Dimension();
+    private final Dimension theater = new Dimension();
+    private final Dimension paymentPartner = new Dimension();
+    private final Dimension assignedUser = new Dimension();
+    private final Dimension sourceApp = new Dimension();
+    private final OfferColumns columns;
+    private final PriorityQueue<Boundary> boundaries = new PriorityQueue<>(Comparator.comparing(Boundary::at));
+
+    private volatile BitSet live = new BitSet();
+
+    /**
+     * Positions are assigned in descending {@link OfferPricing#discountCeilingCents()} order, so candidates come
+     * back best-possible-discount first and top-K evaluation can stop early. Each offer's rules are encoded against
+     * this index's own {@link #dictionary()}.
+     */
+    OfferIndex(List<Offer> offers, LocalDateTime now) {
+        this.offers = offers.stream()
+                .sorted(Comparator.comparingLong((Offer offer) -> offer.getPricing().discountCeilingCents()).reversed())
+                .toList();
+        BitSet initiallyLive = new BitSet(this.offers.size());
+        for (int position = 0; position < this.offers.size(); position++) {
+            Offer offer = this.offers.get(position);
+            OfferDimensions dimensions = offer.encodeDimensions(dictionary);
+            movie.add(position, dimensions.movie());
+            theater.add(position, dimensions.theater());
+            paymentPartner.add(position, dimensions.paymentPartner());
+            assignedUser.add(position, dimensions.assignedUser());
+            sourceApp.add(position, dimensions.sourceApp());
+            scheduleValidity(position, offer, now, initiallyLive);
+        }
+        live = initiallyLive;
+        columns = new OfferColumns(this.offers);
+    }
+
+    /**
+     * Applies every boundary that is due at {@code now} and returns when the next one falls due, or {@code null}
+     * when no offer will change state again.
+     */
+    synchronized LocalDateTime advance(LocalDateTime now) {
+        Boundary next = boundaries.peek();
+        if (next != null && !now.isBefore(next.at())) {
+            BitSet updated = (BitSet) live.clone();
+            while (next != null && !now.isBefore(next.at())) {
+                boundaries.poll();
+                updated.set(next.position(), next.entering());
+                next = boundaries.peek();
+            }
+            live = updated;
+        }
+        return next == null ? null : next.at();
+    }
+
+    int liveCount() {
+        return live.cardinality();
+    }
+
+    int size() {
+        return offers.size();
+    }
+
+    DimensionDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Live offers that match {@code booking}. Starting from the live set, the dimensions are applied one at a time
+     * in declaration order and what each removed is recorded in {@code eligibility}.
+     */
+    List<Offer> candidates(BookingDimensions booking, EligibilityChain.Run eligibility) {
+        BitSet matches = (BitSet) live.clone();
+        prune(matches, EligibilityStage.MOVIE, movie.matching(booking.movie()), eligibility);
+        prune(matches, EligibilityStage.THEATER, theater.matching(booking.theater()), eligibility);
+        prune(matches, EligibilityStage.PAYMENT_PARTNER, paymentPartner.matching(booking.paymentPartner()),
+                eligibility);
+        prune(matches, EligibilityStage.ASSIGNED_USER, assignedUser.matching(booking.user()), eligibility);
+        prune(matches, EligibilityStage.SOURCE_APP, sourceApp.matching(booking.sourceApp()), eligibility);
+        return offersAt(matches);
+    }
+
+    /**
+     * Live offers that match {@code booking} and accept an order of {@code orderCents} whole cents, found by a scan
+     * of the columnar snapshot. Each offer is charged to the first column that rejects it, in
+     * {@link OfferColumns#STAGES} order.
+     */
+    List<Offer> scan(
+            BookingDimensions booking,
+            long orderCents,
+            ColumnScanner scanner,
+            int parallelThreshold,
+            EligibilityChain.Run eligibility
+    ) {
+        BitSet current = live;
+        long[] rejected = new long[OfferColumns.STAGES.size()];
+        BitSet matches = columns.scan(booking, orderCents, current, scanner, parallelThreshold, rejected);
+        long remaining = current.cardinality();
+        for (int i = 0; i < rejected.length; i++) {
+            eligibility.recordPruned(OfferColumns.STAGES.get(i), remaining, rejected[i]);
+            remaining -= rejected[i];
+        }
+        return offersAt(matches);
+    }
+
+    private static void prune(BitSet matches, EligibilityStage stage, BitSet matching,
+                              EligibilityChain.Run eligibility) {
+        int before = matches.cardinality();
+        matches.and(matching);
+        eligibility.recordPruned(stage, before, before - matches.cardinality());
+    }
+
+    private List<Offer> offersAt(BitSet positions) {
+        List<Offer> result = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            result.add(offers.get(position));
+        }
+        return result;
+    }
+
+    private void scheduleValidity(int position, Offer offer, LocalDateTime now, BitSet initiallyLive) {
+        LocalDateTime validFrom = offer.getValidFrom();
+        LocalDateTime expiresAt = offer.getValidTill().plusNanos(1);
+        if (!expiresAt.isAfter(validFrom) || !now.isBefore(expiresAt)) {
+            return;
+        }
+        if (now.isBefore(validFrom)) {
+            boundaries.add(new Boundary(validFrom, position, true));
+        } else {
+            initiallyLive.set(position);
+        }
+        boundaries.add(new Boundary(expiresAt, position, false));
+    }
+
+    private record Boundary(LocalDateTime at, int position, boolean entering) {
+    }
+
+    /** Offer positions per {@link DimensionDictionary} id, indexed directly by the id. */
+    private static final class Dimension {
+
+        private BitSet[] buckets = new BitSet[0];
+        private final BitSet wildcard = new BitSet();
+
+        void add(int position, int ruleId) {
+            if (ruleId == DimensionDictionary.ANY) {
+                wildcard.set(position);
+                return;
+            }
+            if (ruleId >= buckets.length) {
+                buckets = Arrays.copyOf(buckets, Math.max(ruleId + 1, 2 * buckets.length));
+            }
+            if (buckets[ruleId] == null) {
+                buckets[ruleId] = new BitSet();
+            }
+            buckets[ruleId].set(position);
+        }
+
+        BitSet matching(int requestId) {
+            BitSet result = (BitSet) wildcard.clone();
+            if (requestId > DimensionDictionary.ANY && requestId < buckets.length && buckets[requestId] != null) {
+                result.or(buckets[requestId]);
+            }
+            return result;
+        }
+    }
+}
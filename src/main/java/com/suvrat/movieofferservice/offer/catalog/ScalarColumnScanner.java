@@ -0,0 +1,21 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+
+final class ScalarColumnScanner implements ColumnScanner {
+
+    @Override
+    public void scan(OfferColumns columns, BookingDimensions booking, long orderCents, int from, int to, long[] words,
+                     long[] rejected) {
+        for (int position = from; position < to; position++) {
+            long bit = 1L << position;
+            if ((words[position >>> 6] & bit) != 0) {
+                int stage = columns.rejectingStage(position, booking, orderCents);
+                if (stage >= 0) {
+                    words[position >>> 6] &= ~bit;
+                    rejected[stage]++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.matching.DimensionDictionary;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Compares a full vector of offers per step: five dimension columns as ints, then the minimum order column as longs
+ * (two or more long vectors per int vector), narrowing the live lanes column by column so each rejected lane is
+ * counted once, and clears the rejected lanes in the result word. Only instantiated by
+ * {@link ColumnScanner#create()}.
+ */
+final class VectorColumnScanner implements ColumnScanner {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final int LONG_VECTORS_PER_STEP = INTS.length() / LONGS.length();
+
+    @Override
+    public void scan(OfferColumns columns, BookingDimensions booking, long orderCents, int from, int to, long[] words,
+                     long[] rejected) {
+        int step = INTS.length();
+        long stepMask = (1L << step) - 1;
+        int upperBound = from + INTS.loopBound(to - from);
+        int position = from;
+        for (; position < upperBound; position += step) {
+            long live = (words[position >>> 6] >>> position) & stepMask;
+            if (live == 0) {
+                continue;
+            }
+            long lanes = prune(live, dimension(columns.movie, position, booking.movie()), 0, rejected);
+            lanes = prune(lanes, dimension(columns.theater, position, booking.theater()), 1, rejected);
+            lanes = prune(lanes, dimension(columns.paymentPartner, position, booking.paymentPartner()), 2, rejected);
+            lanes = prune(lanes, dimension(columns.assignedUser, position, booking.user()), 3, rejected);
+            lanes = prune(lanes, dimension(columns.sourceApp, position, booking.sourceApp()), 4, rejected);
+            if (lanes != 0) {
+                long affordable = 0;
+                for (int part = 0; part < LONG_VECTORS_PER_STEP; part++) {
+                    affordable |= LongVector.fromArray(LONGS, columns.minOrderCents, position + part * LONGS.length())
+                            .compare(VectorOperators.LE, orderCents)
+                            .toLong() << (part * LONGS.length());
+                }
+                lanes = prune(lanes, affordable, 5, rejected);
+            }
+            words[position >>> 6] ^= (live ^ lanes) << position;
+        }
+        for (; position < to; position++) {
+            long bit = 1L << position;
+            if ((words[position >>> 6] & bit) != 0) {
+                int stage = columns.rejectingStage(position, booking, orderCents);
+                if (stage >= 0) {
+                    words[position >>> 6] &= ~bit;
+                    rejected[stage]++;
+                }
+            }
+        }
+    }
+
+    private static long prune(long lanes, long passing, int stage, long[] rejected) {
+        long kept = lanes & passing;
+        rejected[stage] += Long.bitCount(lanes) - Long.bitCount(kept);
+        return kept;
+    }
+
+    private static long dimension(int[] rules, int offset, int requested) {
+        IntVector rule = IntVector.fromArray(INTS, rules, offset);
+        return rule.compare(VectorOperators.EQ, DimensionDictionary.ANY)
+                .or(rule.compare(VectorOperators.EQ, requested))
+                .toLong();
+    }
+}
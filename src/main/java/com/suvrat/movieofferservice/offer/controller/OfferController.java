@@ -1,26 +1,41 @@
 package com.suvrat.movieofferservice.offer.controller;
 
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferBatchResult;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferRequest;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
-import com.suvrat.movieofferservice.offer.dto.AppliedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersPage;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersQuery;
 import com.suvrat.movieofferservice.offer.dto.CreateOfferRequest;
+import com.suvrat.movieofferservice.offer.dto.EligibilityStageStats;
 import com.suvrat.movieofferservice.offer.dto.EvaluateOffersRequest;
 import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
 import com.suvrat.movieofferservice.offer.dto.OfferResponse;
+import com.suvrat.movieofferservice.offer.service.AppliedOffersExporter;
+import com.suvrat.movieofferservice.offer.service.OfferListingPayload;
+import com.suvrat.movieofferservice.offer.service.OfferListingPayloads;
 import com.suvrat.movieofferservice.offer.service.OfferService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1/offers")
@@ -28,7 +43,11 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Offers", description = "Create, evaluate, apply, and inspect movie booking offers")
 public class OfferController {
 
+    static final String CATALOG_VERSION_HEADER = "X-Catalog-Version";
+
     private final OfferService offerService;
+    private final AppliedOffersExporter appliedOffersExporter;
+    private final OfferListingPayloads offerListingPayloads;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -40,13 +59,24 @@ public class OfferController {
         return ResponseEntity.status(HttpStatus.CREATED).body(offerService.createOffer(request));
     }
 
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(
             summary = "List all offers",
-            description = "Returns all available offers."
+            description = "Returns all available offers. The X-Catalog-Version header identifies the catalog snapshot "
+                    + "the list was taken from; send the returned ETag in If-None-Match to get 304 Not Modified "
+                    + "while the catalog is unchanged."
     )
-    public ResponseEntity<List<OfferResponse>> listOffers() {
-        return ResponseEntity.ok(offerService.listOffers());
+    @ApiResponse(responseCode = "200", content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = OfferResponse.class))))
+    @ApiResponse(responseCode = "304", description = "The catalog still matches the If-None-Match entity tag")
+    public ResponseEntity<byte[]> listOffers() {
+        OfferListingPayload payload = offerListingPayloads.payloadFor(offerService.listOffers());
+        return ResponseEntity.ok()
+                .eTag(payload.etag())
+                .header(CATALOG_VERSION_HEADER, Long.toString(payload.version()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload.body());
     }
 
     @PostMapping("/evaluate")
@@ -58,6 +88,26 @@ public class OfferController {
         return ResponseEntity.ok(offerService.evaluateOffers(request));
     }
 
+    @PostMapping("/evaluate/batch")
+    @Operation(
+            summary = "Evaluate offers for many booking contexts",
+            description = "Evaluates eligible offers for each booking context and returns the results in request order."
+    )
+    public ResponseEntity<List<List<EvaluatedOfferResponse>>> evaluateOffersBatch(
+            @RequestBody List<EvaluateOffersRequest> requests) {
+        return ResponseEntity.ok(offerService.evaluateOffersBatch(requests));
+    }
+
+    @GetMapping("/evaluate/stages")
+    @Operation(
+            summary = "Inspect eligibility stages",
+            description = "Returns the current order of the eligibility checks and how many offers each one has "
+                    + "evaluated and rejected since startup."
+    )
+    public ResponseEntity<List<EligibilityStageStats>> eligibilityStages() {
+        return ResponseEntity.ok(offerService.eligibilityStages());
+    }
+
     @PostMapping("/apply")
     @Operation(
             summary = "Apply an offer",
@@ -67,12 +117,39 @@ public class OfferController {
         return ResponseEntity.ok(offerService.applyOffer(request));
     }
 
+    @PostMapping("/apply/batch")
+    @Operation(
+            summary = "Apply offers to many bookings",
+            description = "Validates and applies a batch of offers and reports success or failure for each booking."
+    )
+    public ResponseEntity<List<ApplyOfferBatchResult>> applyOffersBatch(@RequestBody List<ApplyOfferRequest> requests) {
+        return ResponseEntity.ok(offerService.applyOffersBatch(requests));
+    }
+
     @GetMapping("/applied")
     @Operation(
             summary = "List applied offers",
-            description = "Returns all applied offers and redemption history."
+            description = "Returns redemption history newest first, one page at a time. "
+                    + "Pass the returned nextCursor to fetch the following page."
+    )
+    public ResponseEntity<AppliedOffersPage> listAppliedOffers(
+            @RequestParam(required = false) String userId,
+            @RequestParam(required = false) String offerCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(offerService.listAppliedOffers(
+                new AppliedOffersQuery(userId, offerCode, from, to, cursor, limit)));
+    }
+
+    @GetMapping(value = "/applied/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Export applied offers",
+            description = "Streams the full redemption history as newline-delimited JSON, oldest first."
     )
-    public ResponseEntity<List<AppliedOfferResponse>> listAppliedOffers() {
-        return ResponseEntity.ok(offerService.listAppliedOffers());
+    public ResponseEntity<StreamingResponseBody> exportAppliedOffers() {
+        StreamingResponseBody body = appliedOffersExporter::writeNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
@@ -0,0 +1,9 @@
+package com.suvrat.movieofferservice.offer.dto;
+
+import java.util.List;
+
+public record AppliedOffersPage(
+        List<AppliedOfferResponse> items,
+        String nextCursor
+) {
+}
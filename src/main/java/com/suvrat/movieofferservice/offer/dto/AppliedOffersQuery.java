@@ -0,0 +1,13 @@
+package com.suvrat.movieofferservice.offer.dto;
+
+import java.time.LocalDateTime;
+
+public record AppliedOffersQuery(
+        String userId,
+        String offerCode,
+        LocalDateTime from,
+        LocalDateTime to,
+        String cursor,
+        Integer limit
+) {
+}
@@ -0,0 +1,16 @@
+package com.suvrat.movieofferservice.offer.dto;
+
+public record ApplyOfferBatchResult(
+        String bookingId,
+        String status,
+        ApplyOfferResponse result,
+        String message
+) {
+    public static ApplyOfferBatchResult applied(ApplyOfferResponse result) {
+        return new ApplyOfferBatchResult(result.bookingId(), "APPLIED", result, null);
+    }
+
+    public static ApplyOfferBatchResult failed(String bookingId, String message) {
+        return new ApplyOfferBatchResult(bookingId, "FAILED", null, message);
+    }
+}
@@ -24,6 +24,7 @@ public record CreateOfferRequest(
         String assignedUserId,
         OfferOrigin offerOrigin,
         String sourceApp,
-        String sourceOfferCode
+        String sourceOfferCode,
+        Boolean flashSale
 ) {
 }
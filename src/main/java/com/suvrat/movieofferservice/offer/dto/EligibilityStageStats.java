@@ -0,0 +1,9 @@
+package com.suvrat.movieofferservice.offer.dto;
+
+public record EligibilityStageStats(
+        String stage,
+        int position,
+        long evaluated,
+        long rejected
+) {
+}
@@ -8,6 +8,7 @@ public record EvaluateOffersRequest(
         String theaterId,
         String paymentPartner,
         String sourceApp,
-        BigDecimal orderAmount
+        BigDecimal orderAmount,
+        Integer limit
 ) {
 }
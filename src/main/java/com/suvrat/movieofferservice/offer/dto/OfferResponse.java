@@ -26,7 +26,8 @@ public record OfferResponse(
         String assignedUserId,
         OfferOrigin offerOrigin,
         String sourceApp,
-        String sourceOfferCode
+        String sourceOfferCode,
+        Boolean flashSale
 ) {
     public static OfferResponse from(Offer offer) {
         return new OfferResponse(
@@ -49,7 +50,8 @@ public record OfferResponse(
                 offer.getAssignedUserId(),
                 offer.getOfferOrigin(),
                 offer.getSourceApp(),
-                offer.getSourceOfferCode()
+                offer.getSourceOfferCode(),
+                offer.getFlashSale()
         );
     }
 }
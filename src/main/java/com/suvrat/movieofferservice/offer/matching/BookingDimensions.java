@@ -0,0 +1,19 @@
+package com.suvrat.movieofferservice.offer.matching;
+
+/**
+ * The booking context of one request as {@link DimensionDictionary} ids. Only comparable with offers encoded by the
+ * same dictionary: a value none of them uses encodes as {@link DimensionDictionary#NONE}.
+ */
+public record BookingDimensions(int movie, int theater, int paymentPartner, int user, int sourceApp) {
+
+    public static BookingDimensions of(DimensionDictionary dictionary, String movieId, String theaterId,
+                                       String paymentPartner, String userId, String sourceApp) {
+        return new BookingDimensions(
+                dictionary.lookup(movieId),
+                dictionary.lookup(theaterId),
+                dictionary.lookup(paymentPartner),
+                dictionary.lookup(userId),
+                dictionary.lookup(sourceApp)
+        );
+    }
+}
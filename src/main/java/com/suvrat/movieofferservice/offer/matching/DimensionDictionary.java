@@ -0,0 +1,45 @@
+package com.suvrat.movieofferservice.offer.matching;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dictionary of canonical (trimmed, lower-cased) dimension values for one catalog load. Offer rule values are
+ * interned while the catalog is built; request values are only looked up, so a dictionary holds exactly the values
+ * its offers use and is dropped with the catalog that built it.
+ *
+ * <p>Not thread-safe while interning. A dictionary is filled by the thread building a catalog and only read once
+ * that catalog is published.
+ */
+public final class DimensionDictionary {
+
+    /** A blank rule value: matches every request. */
+    public static final int ANY = 0;
+    /** A blank or never-interned request value: matches only {@link #ANY} rules. */
+    public static final int NONE = -1;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    public int intern(String ruleValue) {
+        String key = key(ruleValue);
+        return key == null ? ANY : ids.computeIfAbsent(key, _ -> ids.size() + ANY + 1);
+    }
+
+    public int lookup(String requestValue) {
+        String key = key(requestValue);
+        return key == null ? NONE : ids.getOrDefault(key, NONE);
+    }
+
+    /** One past the largest id handed out so far. */
+    public int size() {
+        return ids.size() + ANY + 1;
+    }
+
+    private static String key(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,181 @@
+package com.suvrat.movieofferservice.offer.matching;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.dto.EligibilityStageStats;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.pricing.OrderAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the eligibility stages and counts, per stage, how many offers reached it and how many it rejected. Every
+ * {@code offers.evaluate.stage-reorder-interval} offer checks the in-memory stages are re-sorted by cost divided by
+ * the rejection rate seen since the last re-sort, so cheap and selective stages run first.
+ *
+ * <p>On the evaluate path the catalog index enforces the {@linkplain EligibilityStage#indexed() indexed} stages
+ * with bitsets and reports through {@link Run#recordPruned} what each one removed, in its own fixed order; only the
+ * remaining stages are run per candidate. The adaptive order therefore decides the cost of per-offer checks (apply,
+ * and the residual stages on evaluate), while the counters of every stage reflect real rejections.
+ */
+@Component
+public class EligibilityChain {
+
+    /** Rejection rate assumed for a stage that no offer reached since the last re-sort. */
+    private static final double PRIOR_REJECTION_RATE = 0.1;
+    private static final EligibilityStage[] STAGES = EligibilityStage.values();
+    private static final List<EligibilityStage> IN_MEMORY = Arrays.stream(STAGES)
+            .filter(stage -> !stage.usageBacked())
+            .toList();
+    private static final List<EligibilityStage> USAGE_BACKED = Arrays.stream(STAGES)
+            .filter(EligibilityStage::usageBacked)
+            .toList();
+
+    private final long reorderInterval;
+    private final LongAdder[] evaluated = new LongAdder[STAGES.length];
+    private final LongAdder[] rejected = new LongAdder[STAGES.length];
+    private final long[] evaluatedAtReorder = new long[STAGES.length];
+    private final long[] rejectedAtReorder = new long[STAGES.length];
+    private final AtomicLong checksSinceReorder = new AtomicLong();
+
+    private volatile EligibilityStage[] order = IN_MEMORY.toArray(EligibilityStage[]::new);
+
+    public EligibilityChain(OfferProperties offerProperties) {
+        this.reorderInterval = offerProperties.getEvaluate().getStageReorderInterval();
+        for (int i = 0; i < STAGES.length; i++) {
+            evaluated[i] = new LongAdder();
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts counting for one request. The run keeps the stage order it started with and is not thread-safe.
+     */
+    public Run start() {
+        return new Run(order);
+    }
+
+    public List<EligibilityStage> order() {
+        List<EligibilityStage> stages = new ArrayList<>(Arrays.asList(order));
+        stages.addAll(USAGE_BACKED);
+        return stages;
+    }
+
+    public List<EligibilityStageStats> stats() {
+        List<EligibilityStage> stages = order();
+        List<EligibilityStageStats> stats = new ArrayList<>(stages.size());
+        for (int position = 0; position < stages.size(); position++) {
+            EligibilityStage stage = stages.get(position);
+            stats.add(new EligibilityStageStats(stage.name(), position, evaluated[stage.ordinal()].sum(),
+                    rejected[stage.ordinal()].sum()));
+        }
+        return stats;
+    }
+
+    public long evaluated(EligibilityStage stage) {
+        return evaluated[stage.ordinal()].sum();
+    }
+
+    public long rejected(EligibilityStage stage) {
+        return rejected[stage.ordinal()].sum();
+    }
+
+    synchronized void reorder() {
+        if (checksSinceReorder.get() < reorderInterval) {
+            return;
+        }
+        checksSinceReorder.set(0);
+        double[] score = new double[STAGES.length];
+        for (EligibilityStage stage : IN_MEMORY) {
+            int i = stage.ordinal();
+            long evaluatedNow = evaluated[i].sum();
+            long rejectedNow = rejected[i].sum();
+            double rejectionRate = (rejectedNow - rejectedAtReorder[i] + PRIOR_REJECTION_RATE)
+                    / (evaluatedNow - evaluatedAtReorder[i] + 1.0);
+            score[i] = stage.cost() / rejectionRate;
+            evaluatedAtReorder[i] = evaluatedNow;
+            rejectedAtReorder[i] = rejectedNow;
+        }
+        order = IN_MEMORY.stream()
+                .sorted(Comparator.comparingDouble(stage -> score[stage.ordinal()]))
+                .toArray(EligibilityStage[]::new);
+    }
+
+    public final class Run {
+
+        private final EligibilityStage[] stages;
+        private final long[] runEvaluated = new long[STAGES.length];
+        private final long[] runRejected = new long[STAGES.length];
+        private long checks;
+
+        private Run(EligibilityStage[] stages) {
+            this.stages = stages;
+        }
+
+        public boolean matches(Offer offer, BookingDimensions booking, OrderAmount orderAmount) {
+            checks++;
+            for (EligibilityStage stage : stages) {
+                if (!record(stage, stage.test(offer, booking, orderAmount))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Runs the stages the catalog index does not enforce, for an offer the index already handed out.
+         */
+        public boolean matchesUnindexed(Offer offer, BookingDimensions booking, OrderAmount orderAmount) {
+            checks++;
+            for (EligibilityStage stage : stages) {
+                if (!stage.indexed() && !record(stage, stage.test(offer, booking, orderAmount))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Counts {@code rejected} of {@code evaluated} offers as removed by {@code stage} outside this run, such as
+         * by a bitset filter of the catalog index.
+         */
+        public void recordPruned(EligibilityStage stage, long evaluated, long rejected) {
+            runEvaluated[stage.ordinal()] += evaluated;
+            runRejected[stage.ordinal()] += rejected;
+        }
+
+        public boolean passesUsage(Offer offer, long totalUsage, long userUsage) {
+            Integer totalLimit = offer.getTotalUsageLimit();
+            return record(EligibilityStage.TOTAL_USAGE, totalLimit == null || totalUsage < totalLimit)
+                    && record(EligibilityStage.USER_USAGE, userUsage < offer.getPerUserUsageLimit());
+        }
+
+        /**
+         * Publishes this run's counts and re-sorts the chain when the interval has passed.
+         */
+        public void finish() {
+            for (int i = 0; i < STAGES.length; i++) {
+                if (runEvaluated[i] > 0) {
+                    evaluated[i].add(runEvaluated[i]);
+                    rejected[i].add(runRejected[i]);
+                }
+            }
+            if (reorderInterval > 0 && checks > 0 && checksSinceReorder.addAndGet(checks) >= reorderInterval) {
+                reorder();
+            }
+        }
+
+        private boolean record(EligibilityStage stage, boolean passed) {
+            runEvaluated[stage.ordinal()]++;
+            if (!passed) {
+                runRejected[stage.ordinal()]++;
+            }
+            return passed;
+        }
+    }
+}
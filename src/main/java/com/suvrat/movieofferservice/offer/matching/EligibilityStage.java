@@ -0,0 +1,58 @@
+package com.suvrat.movieofferservice.offer.matching;
+
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.pricing.OrderAmount;
+
+/**
+ * One eligibility check. In-memory stages are reordered by {@link EligibilityChain}; the usage-backed stages need
+ * counts loaded from the database and always run last, in declaration order. Indexed stages are enforced by the
+ * catalog index on the evaluate path, which reports what each of them pruned instead of testing offer by offer.
+ */
+public enum EligibilityStage {
+
+    ACTIVE(1, false, true),
+    MIN_ORDER(2, false, false),
+    MOVIE(1, false, true),
+    THEATER(1, false, true),
+    PAYMENT_PARTNER(1, false, true),
+    ASSIGNED_USER(1, false, true),
+    SOURCE_APP(1, false, true),
+    TOTAL_USAGE(1, true, false),
+    USER_USAGE(1, true, false);
+
+    private final int cost;
+    private final boolean usageBacked;
+    private final boolean indexed;
+
+    EligibilityStage(int cost, boolean usageBacked, boolean indexed) {
+        this.cost = cost;
+        this.usageBacked = usageBacked;
+        this.indexed = indexed;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    public boolean usageBacked() {
+        return usageBacked;
+    }
+
+    public boolean indexed() {
+        return indexed;
+    }
+
+    boolean test(Offer offer, BookingDimensions booking, OrderAmount orderAmount) {
+        OfferDimensions rules = offer.getDimensions();
+        return switch (this) {
+            case ACTIVE -> Boolean.TRUE.equals(offer.getActive());
+            case MIN_ORDER -> offer.getPricing().acceptsOrder(orderAmount);
+            case MOVIE -> OfferDimensions.matches(rules.movie(), booking.movie());
+            case THEATER -> OfferDimensions.matches(rules.theater(), booking.theater());
+            case PAYMENT_PARTNER -> OfferDimensions.matches(rules.paymentPartner(), booking.paymentPartner());
+            case ASSIGNED_USER -> OfferDimensions.matches(rules.assignedUser(), booking.user());
+            case SOURCE_APP -> OfferDimensions.matches(rules.sourceApp(), booking.sourceApp());
+            case TOTAL_USAGE, USER_USAGE -> throw new IllegalStateException(name() + " needs usage counts");
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.suvrat.movieofferservice.offer.matching;
+
+/**
+ * Targeting rules of an offer as {@link DimensionDictionary} ids, {@link DimensionDictionary#ANY} where the rule is
+ * blank. {@code sourceApp} is only set for third-party offers.
+ */
+public record OfferDimensions(int movie, int theater, int paymentPartner, int assignedUser, int sourceApp) {
+
+    public static OfferDimensions of(DimensionDictionary dictionary, String movieId, String theaterId,
+                                     String paymentPartner, String assignedUserId, String sourceApp) {
+        return new OfferDimensions(
+                dictionary.intern(movieId),
+                dictionary.intern(theaterId),
+                dictionary.intern(paymentPartner),
+                dictionary.intern(assignedUserId),
+                dictionary.intern(sourceApp)
+        );
+    }
+
+    public boolean matches(BookingDimensions booking) {
+        return matches(movie, booking.movie()) && matches(theater, booking.theater())
+                && matches(paymentPartner, booking.paymentPartner()) && matches(assignedUser, booking.user())
+                && matches(sourceApp, booking.sourceApp());
+    }
+
+    static boolean matches(int rule, int requested) {
+        return rule == DimensionDictionary.ANY || rule == requested;
+    }
+}
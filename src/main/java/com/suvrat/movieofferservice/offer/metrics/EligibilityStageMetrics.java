@@ -0,0 +1,36 @@
+package com.suvrat.movieofferservice.offer.metrics;
+
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.matching.EligibilityStage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the counters the {@link EligibilityChain} already keeps as {@code offers.eligibility.evaluated} and
+ * {@code offers.eligibility.rejected}, tagged with the stage, so rejections per reason cost nothing extra on the
+ * request path.
+ */
+@Component
+@RequiredArgsConstructor
+public class EligibilityStageMetrics implements MeterBinder {
+
+    private final EligibilityChain eligibilityChain;
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (EligibilityStage stage : EligibilityStage.values()) {
+            FunctionCounter.builder("offers.eligibility.evaluated", eligibilityChain, chain -> chain.evaluated(stage))
+                    .description("Offers checked by an eligibility stage")
+                    .tag("stage", stage.name())
+                    .register(meterRegistry);
+            FunctionCounter.builder("offers.eligibility.rejected", eligibilityChain, chain -> chain.rejected(stage))
+                    .description("Offers rejected by an eligibility stage")
+                    .tag("stage", stage.name())
+                    .register(meterRegistry);
+        }
+    }
+}
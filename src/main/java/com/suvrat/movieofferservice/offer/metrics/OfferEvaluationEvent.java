@@ -0,0 +1,35 @@
+package com.suvrat.movieofferservice.offer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One {@code evaluateOffers} call. The event's own duration covers the whole call; the user id is recorded only
+ * as a hash so recordings can correlate calls of one user without carrying the id.
+ */
+@Name("com.suvrat.offers.Evaluation")
+@Label("Offer Evaluation")
+@Category({"Movie Offers"})
+@Description("Evaluation of the offer catalog for one booking context")
+@StackTrace(false)
+public class OfferEvaluationEvent extends Event {
+
+    @Label("Candidates")
+    @Description("Offers handed out by the catalog after the in-memory eligibility stages")
+    public int candidateCount;
+
+    @Label("Eligible")
+    @Description("Offers returned to the caller")
+    public int eligibleCount;
+
+    @Label("User Id Hash")
+    public int userIdHash;
+
+    @Label("Cached")
+    @Description("Served from the evaluate result cache; no candidates were examined")
+    public boolean cached;
+}
@@ -0,0 +1,70 @@
+package com.suvrat.movieofferservice.offer.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency of each stage of evaluate and apply, published as {@code offers.stage} tagged with the stage name, plus
+ * per-request counts of live offers scanned, catalog candidates and eligible offers. Stages are timed from a {@link System#nanoTime()}
+ * taken by the caller, so recording allocates nothing.
+ */
+@Component
+public class OfferMetrics {
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Counter scanned;
+    private final Counter candidates;
+    private final Counter eligible;
+
+    public OfferMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("offers.stage")
+                    .description("Time spent in one stage of offer evaluation or redemption")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .publishPercentiles(0.5, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        scanned = Counter.builder("offers.evaluate.offers")
+                .description("Live catalog offers an evaluate request was matched against")
+                .tag("outcome", "scanned")
+                .register(meterRegistry);
+        candidates = Counter.builder("offers.evaluate.offers")
+                .description("Offers returned by the catalog after the in-memory eligibility stages")
+                .tag("outcome", "candidate")
+                .register(meterRegistry);
+        eligible = Counter.builder("offers.evaluate.offers")
+                .description("Offers that passed every eligibility stage and were returned to the caller")
+                .tag("outcome", "eligible")
+                .register(meterRegistry);
+    }
+
+    public void record(Stage stage, long startedNanos) {
+        timers.get(stage).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordScanned(int scannedCount) {
+        scanned.increment(scannedCount);
+    }
+
+    public void recordEvaluated(int candidateCount, int eligibleCount) {
+        candidates.increment(candidateCount);
+        eligible.increment(eligibleCount);
+    }
+
+    public enum Stage {
+        CATALOG_LOAD,
+        ELIGIBILITY,
+        USAGE_LOOKUP,
+        DISCOUNT,
+        SORT,
+        REDEMPTION_INSERT
+    }
+}
@@ -0,0 +1,58 @@
+package com.suvrat.movieofferservice.offer.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code applyOffer} call, including conflict retries. Lock wait is the time spent in the statements that
+ * take the offer and per-user usage row locks: the locking read under {@code PESSIMISTIC_LOCK}, the conditional
+ * slot updates under both strategies. The timing helpers do nothing while the event is disabled, so an apply that
+ * is not being recorded neither reads the clock for them nor fills any field.
+ */
+@Name("com.suvrat.offers.Redemption")
+@Label("Offer Redemption")
+@Category({"Movie Offers"})
+@Description("Application of an offer code to one booking")
+@StackTrace(false)
+public class OfferRedemptionEvent extends Event {
+
+    @Label("Offer Code")
+    public String offerCode;
+
+    @Label("Lock Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long lockWait;
+
+    @Label("Insert Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long insertTime;
+
+    @Label("Attempts")
+    @Description("Transactions started, more than one when a lock conflict was retried")
+    public int attempts;
+
+    @Label("Applied")
+    public boolean applied;
+
+    /** Start of a lock-taking statement, or 0 when the event is disabled. */
+    public long startTimer() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public void addLockWait(long started) {
+        if (isEnabled()) {
+            lockWait += System.nanoTime() - started;
+        }
+    }
+
+    public void addInsertTime(long started) {
+        if (isEnabled()) {
+            insertTime += System.nanoTime() - started;
+        }
+    }
+}
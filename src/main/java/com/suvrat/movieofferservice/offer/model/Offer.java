@@ -1,13 +1,18 @@
 package com.suvrat.movieofferservice.offer.model;
 
+import com.suvrat.movieofferservice.offer.matching.DimensionDictionary;
+import com.suvrat.movieofferservice.offer.matching.OfferDimensions;
+import com.suvrat.movieofferservice.offer.pricing.OfferPricing;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "offers")
@@ -82,12 +87,35 @@ public class Offer {
     @Column(length = 64, unique = true)
     private String sourceOfferCode;
 
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private Boolean flashSale;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long redeemedCount;
+
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private OfferPricing pricing;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private OfferDimensions dimensions;
+
     @PrePersist
     public void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -99,4 +127,32 @@ public class Offer {
     public void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
+
+    @PostLoad
+    public void onLoad() {
+        this.pricing = OfferPricing.of(offerType, discountValue, maxDiscount, minOrderAmount);
+    }
+
+    /**
+     * Encodes the targeting rules against {@code dictionary}; matching reads {@link #getDimensions()} from then on.
+     */
+    public OfferDimensions encodeDimensions(DimensionDictionary dictionary) {
+        this.dimensions = OfferDimensions.of(dictionary, applicableMovieId, applicableTheaterId, paymentPartner,
+                assignedUserId, offerOrigin == OfferOrigin.THIRD_PARTY ? sourceApp : null);
+        return dimensions;
+    }
+
+    public OfferPricing getPricing() {
+        if (pricing == null) {
+            onLoad();
+        }
+        return pricing;
+    }
+
+    public OfferDimensions getDimensions() {
+        if (dimensions == null) {
+            throw new IllegalStateException("Offer " + code + " has not been encoded against a dimension dictionary");
+        }
+        return dimensions;
+    }
 }
@@ -0,0 +1,25 @@
+package com.suvrat.movieofferservice.offer.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "offer_user_usage")
+@Access(AccessType.FIELD)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OfferUserUsage {
+
+    @EmbeddedId
+    private OfferUserUsageId id;
+
+    @Column(nullable = false)
+    private Long used;
+}
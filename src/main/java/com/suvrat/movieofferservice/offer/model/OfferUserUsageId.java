@@ -0,0 +1,23 @@
+package com.suvrat.movieofferservice.offer.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class OfferUserUsageId implements Serializable {
+
+    @Column(nullable = false)
+    private Long offerId;
+
+    @Column(nullable = false, length = 64)
+    private String userId;
+}
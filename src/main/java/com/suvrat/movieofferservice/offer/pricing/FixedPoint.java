@@ -0,0 +1,36 @@
+package com.suvrat.movieofferservice.offer.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+final class FixedPoint {
+
+    static final int CENTS_SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+            1_000_000_000L, 10_000_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    static long powerOfTen(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /** Divides by a positive divisor, rounding half away from zero like {@link RoundingMode#HALF_UP}. */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    /** Converts to a whole number of 10^-scale units, rounding HALF_UP as {@code setScale} would. */
+    static long toUnits(BigDecimal value, int scale) {
+        return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
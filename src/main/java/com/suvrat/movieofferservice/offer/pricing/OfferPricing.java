@@ -0,0 +1,58 @@
+package com.suvrat.movieofferservice.offer.pricing;
+
+import com.suvrat.movieofferservice.offer.model.OfferType;
+import java.math.BigDecimal;
+
+/**
+ * Discount terms of an offer in fixed point: percentages in basis points, amounts in cents. Converted once per
+ * loaded offer so evaluating it against an {@link OrderAmount} does not allocate.
+ */
+public record OfferPricing(boolean percentage, long discountValue, long maxDiscountCents, long minOrderCents) {
+
+    static final long MAX_BASIS_POINTS = 10_000L;
+    private static final long NO_CAP = -1L;
+
+    public static OfferPricing of(OfferType offerType, BigDecimal discountValue, BigDecimal maxDiscount,
+                                  BigDecimal minOrderAmount) {
+        return new OfferPricing(
+                offerType == OfferType.PERCENTAGE,
+                FixedPoint.toUnits(discountValue, FixedPoint.CENTS_SCALE),
+                maxDiscount == null ? NO_CAP : FixedPoint.toUnits(maxDiscount, FixedPoint.CENTS_SCALE),
+                minOrderAmount == null ? 0L : FixedPoint.toUnits(minOrderAmount, FixedPoint.CENTS_SCALE)
+        );
+    }
+
+    /**
+     * The most this offer can ever discount, in cents: the flat value or the cap, whichever is lower.
+     * {@link Long#MAX_VALUE} for an uncapped percentage.
+     */
+    public long discountCeilingCents() {
+        long ceiling = percentage ? Long.MAX_VALUE : discountValue;
+        return maxDiscountCents == NO_CAP ? ceiling : Math.min(ceiling, maxDiscountCents);
+    }
+
+    /** An upper bound for {@link #discountUnits(OrderAmount)} that needs no percentage arithmetic. */
+    public long discountCeilingUnits(OrderAmount order) {
+        long ceiling = discountCeilingCents();
+        return ceiling == Long.MAX_VALUE ? order.units() : Math.min(order.centsToUnits(ceiling), order.units());
+    }
+
+    public boolean acceptsOrder(OrderAmount order) {
+        return !order.isBelowCents(minOrderCents);
+    }
+
+    /**
+     * Returns the discount in the order's units: a percentage is rounded HALF_UP to cents first, then the discount
+     * is capped at the offer maximum and at the order amount itself.
+     */
+    public long discountUnits(OrderAmount order) {
+        long discountCents = percentage
+                ? FixedPoint.divideHalfUp(Math.multiplyExact(order.units(), discountValue),
+                FixedPoint.powerOfTen(order.scale() + FixedPoint.CENTS_SCALE))
+                : discountValue;
+        if (maxDiscountCents != NO_CAP && discountCents > maxDiscountCents) {
+            discountCents = maxDiscountCents;
+        }
+        return Math.min(order.centsToUnits(discountCents), order.units());
+    }
+}
@@ -0,0 +1,60 @@
+package com.suvrat.movieofferservice.offer.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * A booking amount held as a whole number of 10^-scale units. The scale is at least 2 (cents) and grows to
+ * keep any extra decimals the caller sent, so comparisons and HALF_UP rounding match {@link BigDecimal} exactly.
+ */
+public record OrderAmount(long units, int scale) {
+
+    static final int MAX_SCALE = 8;
+    static final long MAX_UNITS = Long.MAX_VALUE / OfferPricing.MAX_BASIS_POINTS;
+
+    /**
+     * @throws ArithmeticException when the amount has more than {@value #MAX_SCALE} decimals or is too large to
+     *                             price without overflow
+     */
+    public static OrderAmount of(BigDecimal amount) {
+        BigDecimal stripped = amount.stripTrailingZeros();
+        int scale = Math.max(FixedPoint.CENTS_SCALE, stripped.scale());
+        if (scale > MAX_SCALE) {
+            throw new ArithmeticException("Too many decimal places: " + amount);
+        }
+        long units = stripped.movePointRight(scale).longValueExact();
+        if (Math.abs(units) > MAX_UNITS) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return new OrderAmount(units, scale);
+    }
+
+    long unitsPerCent() {
+        return FixedPoint.powerOfTen(scale - FixedPoint.CENTS_SCALE);
+    }
+
+    long centsToUnits(long cents) {
+        return cents * unitsPerCent();
+    }
+
+    public boolean isBelowCents(long cents) {
+        return units < centsToUnits(cents);
+    }
+
+    /** Whole cents, rounded down: {@code isBelowCents(c)} is {@code floorCents() < c} for every {@code c}. */
+    public long floorCents() {
+        return Math.floorDiv(units, unitsPerCent());
+    }
+
+    /** Rounds a value in this amount's units to cents, HALF_UP. */
+    public long toCents(long amountUnits) {
+        return FixedPoint.divideHalfUp(amountUnits, unitsPerCent());
+    }
+
+    public long finalPayableCents(long discountUnits) {
+        return toCents(Math.max(units - discountUnits, 0));
+    }
+
+    public static BigDecimal centsToBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, FixedPoint.CENTS_SCALE);
+    }
+}
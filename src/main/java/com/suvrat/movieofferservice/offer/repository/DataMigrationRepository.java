@@ -0,0 +1,7 @@
+package com.suvrat.movieofferservice.offer.repository;
+
+import com.suvrat.movieofferservice.offer.model.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+}
@@ -0,0 +1,24 @@
+package com.suvrat.movieofferservice.offer.repository;
+
+import com.suvrat.movieofferservice.offer.model.OfferRedemption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OfferRedemptionQueries {
+
+    List<OfferRedemption> findPage(
+            String userId,
+            Long offerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDateTime beforeRedeemedAt,
+            Long beforeId,
+            int limit
+    );
+
+    /**
+     * Makes {@code offer_redemptions_seq} return {@code nextValue} next. DDL takes no bind parameters, hence a
+     * fragment rather than a {@code @Query}.
+     */
+    void restartIdSequence(long nextValue);
+}
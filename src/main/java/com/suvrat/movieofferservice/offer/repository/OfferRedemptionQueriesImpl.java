@@ -0,0 +1,62 @@
+package com.suvrat.movieofferservice.offer.repository;
+
+import com.suvrat.movieofferservice.offer.model.OfferRedemption;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class OfferRedemptionQueriesImpl implements OfferRedemptionQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OfferRedemption> findPage(
+            String userId,
+            Long offerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDateTime beforeRedeemedAt,
+            Long beforeId,
+            int limit
+    ) {
+        StringBuilder jpql = new StringBuilder("select r from OfferRedemption r join fetch r.offer where 1 = 1");
+        Map<String, Object> parameters = new HashMap<>();
+        if (userId != null) {
+            jpql.append(" and r.userId = :userId");
+            parameters.put("userId", userId);
+        }
+        if (offerId != null) {
+            jpql.append(" and r.offer.id = :offerId");
+            parameters.put("offerId", offerId);
+        }
+        if (from != null) {
+            jpql.append(" and r.redeemedAt >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" and r.redeemedAt < :to");
+            parameters.put("to", to);
+        }
+        if (beforeRedeemedAt != null) {
+            jpql.append(" and (r.redeemedAt < :beforeRedeemedAt or (r.redeemedAt = :beforeRedeemedAt and r.id < :beforeId))");
+            parameters.put("beforeRedeemedAt", beforeRedeemedAt);
+            parameters.put("beforeId", beforeId);
+        }
+        jpql.append(" order by r.redeemedAt desc, r.id desc");
+
+        TypedQuery<OfferRedemption> query = entityManager.createQuery(jpql.toString(), OfferRedemption.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public void restartIdSequence(long nextValue) {
+        entityManager.createNativeQuery("ALTER SEQUENCE offer_redemptions_seq RESTART WITH " + nextValue)
+                .executeUpdate();
+    }
+}
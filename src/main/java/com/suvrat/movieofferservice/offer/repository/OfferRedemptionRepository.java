@@ -1,19 +1,39 @@
 package com.suvrat.movieofferservice.offer.repository;
 
-import com.suvrat.movieofferservice.offer.model.Offer;
 import com.suvrat.movieofferservice.offer.model.OfferRedemption;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
-import org.springframework.data.jpa.repository.EntityGraph;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface OfferRedemptionRepository extends JpaRepository<OfferRedemption, Long> {
+public interface OfferRedemptionRepository extends JpaRepository<OfferRedemption, Long>, OfferRedemptionQueries {
 
-    long countByOffer(Offer offer);
-
-    long countByOfferAndUserId(Offer offer, String userId);
+    long countByOfferId(Long offerId);
 
     boolean existsByBookingId(String bookingId);
 
-    @EntityGraph(attributePaths = "offer")
-    List<OfferRedemption> findAllByOrderByRedeemedAtDesc();
+    @Query("select coalesce(max(r.id), 0) from OfferRedemption r")
+    long findMaxId();
+
+    @Query("select r.bookingId from OfferRedemption r where r.bookingId in :bookingIds")
+    List<String> findExistingBookingIds(@Param("bookingIds") Collection<String> bookingIds);
+
+    @Query("select r.bookingId from OfferRedemption r")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<String> streamAllBookingIds();
+
+    @Query("select r from OfferRedemption r join fetch r.offer order by r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OfferRedemption> streamAllWithOffer();
 }
@@ -2,10 +2,15 @@ package com.suvrat.movieofferservice.offer.repository;
 
 import com.suvrat.movieofferservice.offer.model.Offer;
 import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OfferRepository extends JpaRepository<Offer, Long> {
 
@@ -13,10 +18,48 @@ public interface OfferRepository extends JpaRepository<Offer, Long> {
     Optional<Offer> findOfferBySourceOfferCode(String sourceOfferCode);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Offer> findByCode(String code);
+    @Query("select o from Offer o where o.id = :id")
+    Optional<Offer> findByIdForUpdate(@Param("id") Long id);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    Optional<Offer> findBySourceOfferCode(String sourceOfferCode);
+    @Query("select o from Offer o where o.id in :ids order by o.id")
+    List<Offer> findAllByIdsForUpdate(@Param("ids") Collection<Long> ids);
 
-    List<Offer> findByActiveTrue();
+    @Query("""
+            select o.id from Offer o
+            where o.code = :code or o.sourceOfferCode = :code
+            order by case when o.code = :code then 0 else 1 end, o.id
+            """)
+    List<Long> findIdsByCode(@Param("code") String code);
+
+    @Modifying
+    @Query("""
+            update Offer o
+            set o.active = false, o.updatedAt = :now, o.version = o.version + 1
+            where o.active = true and o.validTill < :now
+            """)
+    int deactivateExpired(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update Offer o
+            set o.redeemedCount = o.redeemedCount + :count, o.version = o.version + 1
+            where o.id = :id and (o.totalUsageLimit is null or o.redeemedCount + :count <= o.totalUsageLimit)
+            """)
+    int claimRedemptionSlots(@Param("id") Long id, @Param("count") long count);
+
+    default int claimRedemptionSlot(Long id) {
+        return claimRedemptionSlots(id, 1);
+    }
+
+    @Modifying
+    @Query(value = """
+            UPDATE offers o SET redeemed_count = (
+                SELECT COUNT(*) FROM offer_redemptions r WHERE r.offer_id = o.id
+            )
+            """, nativeQuery = true)
+    int recountRedeemedFromRedemptions();
+
+    @Query("select o.redeemedCount from Offer o where o.id = :id")
+    long findRedeemedCountById(@Param("id") Long id);
 }
@@ -0,0 +1,10 @@
+package com.suvrat.movieofferservice.offer.repository;
+
+public interface OfferUsageView {
+
+    Long getOfferId();
+
+    Long getTotalUsage();
+
+    Long getUserUsage();
+}
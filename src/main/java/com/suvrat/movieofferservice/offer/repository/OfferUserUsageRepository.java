@@ -0,0 +1,63 @@
+package com.suvrat.movieofferservice.offer.repository;
+
+import com.suvrat.movieofferservice.offer.model.OfferUserUsage;
+import com.suvrat.movieofferservice.offer.model.OfferUserUsageId;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface OfferUserUsageRepository extends JpaRepository<OfferUserUsage, OfferUserUsageId> {
+
+    @Query("""
+            select o.id as offerId,
+                   o.redeemedCount as totalUsage,
+                   coalesce(u.used, 0L) as userUsage
+            from Offer o
+            left join OfferUserUsage u on u.id.offerId = o.id and u.id.userId = :userId
+            where o.id in :offerIds
+            """)
+    List<OfferUsageView> findUsageByOfferIds(@Param("offerIds") Collection<Long> offerIds,
+                                             @Param("userId") String userId);
+
+    @Query("""
+            select o.id as offerId,
+                   u.id.userId as userId,
+                   o.redeemedCount as totalUsage,
+                   coalesce(u.used, 0L) as userUsage
+            from Offer o
+            left join OfferUserUsage u on u.id.offerId = o.id and u.id.userId in :userIds
+            where o.id in :offerIds
+            """)
+    List<OfferUserUsageView> findUsageByOfferIdsAndUserIds(@Param("offerIds") Collection<Long> offerIds,
+                                                           @Param("userIds") Collection<String> userIds);
+
+    @Modifying
+    @Query(value = """
+            MERGE INTO offer_user_usage u
+            USING (VALUES (CAST(:offerId AS BIGINT), CAST(:userId AS VARCHAR(64)))) AS s(offer_id, user_id)
+            ON u.offer_id = s.offer_id AND u.user_id = s.user_id
+            WHEN MATCHED AND u.used + :count <= :limit THEN UPDATE SET used = u.used + :count
+            WHEN NOT MATCHED THEN INSERT (offer_id, user_id, used) VALUES (s.offer_id, s.user_id, :count)
+            """, nativeQuery = true)
+    int claimUserSlots(@Param("offerId") Long offerId, @Param("userId") String userId, @Param("count") long count,
+                       @Param("limit") int limit);
+
+    default int claimUserSlot(Long offerId, String userId, int limit) {
+        return claimUserSlots(offerId, userId, 1, limit);
+    }
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO offer_user_usage (offer_id, user_id, used)
+            SELECT r.offer_id, r.user_id, COUNT(*)
+            FROM offer_redemptions r
+            WHERE NOT EXISTS (
+                SELECT 1 FROM offer_user_usage u WHERE u.offer_id = r.offer_id AND u.user_id = r.user_id
+            )
+            GROUP BY r.offer_id, r.user_id
+            """, nativeQuery = true)
+    int backfillFromRedemptions();
+}
@@ -0,0 +1,12 @@
+package com.suvrat.movieofferservice.offer.repository;
+
+public interface OfferUserUsageView {
+
+    Long getOfferId();
+
+    String getUserId();
+
+    Long getTotalUsage();
+
+    Long getUserUsage();
+}
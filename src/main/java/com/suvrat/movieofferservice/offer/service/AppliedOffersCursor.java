@@ -0,0 +1,27 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.offer.exception.OfferValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+record AppliedOffersCursor(LocalDateTime redeemedAt, Long id) {
+
+    String encode() {
+        String value = redeemedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static AppliedOffersCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            return new AppliedOffersCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException exception) {
+            throw new OfferValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.offer.dto.AppliedOfferResponse;
+import com.suvrat.movieofferservice.offer.model.OfferRedemption;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+@Component
+@RequiredArgsConstructor
+public class AppliedOffersExporter {
+
+    private static final int NEWLINE = '\n';
+
+    private final OfferRedemptionRepository offerRedemptionRepository;
+    private final EntityManager entityManager;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public long writeNdjson(OutputStream outputStream) {
+        Long rows = transactionTemplate.execute(_ -> {
+            long written = 0;
+            try (Stream<OfferRedemption> redemptions = offerRedemptionRepository.streamAllWithOffer()) {
+                Iterator<OfferRedemption> iterator = redemptions.iterator();
+                while (iterator.hasNext()) {
+                    OfferRedemption redemption = iterator.next();
+                    writeLine(outputStream, AppliedOfferResponse.from(redemption));
+                    entityManager.detach(redemption);
+                    written++;
+                }
+            }
+            return written;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private void writeLine(OutputStream outputStream, AppliedOfferResponse response) {
+        try {
+            outputStream.write(jsonMapper.writeValueAsBytes(response));
+            outputStream.write(NEWLINE);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
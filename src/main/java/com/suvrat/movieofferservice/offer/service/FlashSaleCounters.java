@@ -0,0 +1,67 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-instance striped permits for flash-sale offers, seeded from the redemption count on first use. They only shed
+ * load: once an instance's permits are gone its applies are refused without touching the database, but every apply
+ * that gets a permit still claims its slot with the conditional {@code redeemed_count} update, which is what holds
+ * the limit when several instances share the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlashSaleCounters {
+
+    private final OfferRedemptionRepository offerRedemptionRepository;
+    private final OfferProperties offerProperties;
+    private final Map<Long, StripedPermits> permitsByOfferId = new ConcurrentHashMap<>();
+
+    public boolean tryReserve(Offer offer) {
+        StripedPermits permits = permitsFor(offer);
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        permits.release();
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    public OptionalLong remaining(Long offerId) {
+        StripedPermits permits = permitsByOfferId.get(offerId);
+        return permits == null ? OptionalLong.empty() : OptionalLong.of(permits.available());
+    }
+
+    /**
+     * Seeds an offer's permits from its redemption count outside the map, so the query never runs under a bin lock;
+     * threads that race on the first reservation all adopt whichever seed was published first.
+     */
+    private StripedPermits permitsFor(Offer offer) {
+        StripedPermits permits = permitsByOfferId.get(offer.getId());
+        if (permits != null) {
+            return permits;
+        }
+        StripedPermits seeded = new StripedPermits(
+                Math.max(0, offer.getTotalUsageLimit() - offerRedemptionRepository.countByOfferId(offer.getId())),
+                Math.max(1, offerProperties.getFlashSale().getStripes()));
+        StripedPermits published = permitsByOfferId.putIfAbsent(offer.getId(), seeded);
+        return published == null ? seeded : published;
+    }
+}
@@ -0,0 +1,78 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.offer.model.DataMigration;
+import com.suvrat.movieofferservice.offer.model.OfferRedemption;
+import com.suvrat.movieofferservice.offer.repository.DataMigrationRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageRepository;
+import java.time.LocalDateTime;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Data fixes for databases written by earlier versions. Each one runs once per database, in the transaction that
+ * records it in {@code data_migrations}, after {@code data.sql} and before the web server accepts requests. When
+ * instances start together, the one whose record insert loses the race skips the migration.
+ */
+@Component
+@RequiredArgsConstructor
+public class OfferDataMigrations implements SmartInitializingSingleton {
+
+    static final String REDEMPTION_ID_SEQUENCE = "redemption-id-sequence";
+    static final String USAGE_COUNTERS = "usage-counters";
+
+    private final DataMigrationRepository dataMigrationRepository;
+    private final OfferRedemptionRepository offerRedemptionRepository;
+    private final OfferRepository offerRepository;
+    private final OfferUserUsageRepository offerUserUsageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate();
+    }
+
+    public void migrate() {
+        apply(REDEMPTION_ID_SEQUENCE, this::moveRedemptionIdsPastExistingRows);
+        apply(USAGE_COUNTERS, this::backfillUsageCounters);
+    }
+
+    /**
+     * Redemption ids used to come from an identity column. The pooled sequence that replaced it is created at 1, so
+     * it is restarted far enough that its first block starts after the largest existing id.
+     */
+    private void moveRedemptionIdsPastExistingRows() {
+        long maxId = offerRedemptionRepository.findMaxId();
+        if (maxId > 0) {
+            offerRedemptionRepository.restartIdSequence(maxId + OfferRedemption.ID_ALLOCATION_SIZE);
+        }
+    }
+
+    /**
+     * Offer and per-user usage counters were introduced after redemptions were already being recorded. They are
+     * derived from the ledger once; from then on every apply keeps them current.
+     */
+    private void backfillUsageCounters() {
+        offerRepository.recountRedeemedFromRedemptions();
+        offerUserUsageRepository.backfillFromRedemptions();
+    }
+
+    private void apply(String id, Runnable migration) {
+        if (dataMigrationRepository.existsById(id)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(_ -> {
+                dataMigrationRepository.saveAndFlush(new DataMigration(id, LocalDateTime.now()));
+                migration.run();
+            });
+        } catch (DataIntegrityViolationException exception) {
+            // Another instance recorded and ran it first.
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.suvrat.movieofferservice.offer.service;
+
+/**
+ * The JSON body of {@code GET /api/v1/offers} for one catalog version, with a strong entity tag derived from the
+ * bytes themselves. The array is shared between requests and must not be modified.
+ */
+public record OfferListingPayload(
+        long version,
+        String etag,
+        byte[] body
+) {
+}
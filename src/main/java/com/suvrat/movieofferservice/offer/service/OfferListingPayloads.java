@@ -0,0 +1,59 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.offer.dto.OfferListing;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Serializes each catalog listing once. The payload is kept until a listing with another version is requested,
+ * so repeated polls of an unchanged catalog reuse the same bytes and entity tag.
+ */
+@Component
+@RequiredArgsConstructor
+public class OfferListingPayloads {
+
+    private static final int ETAG_DIGEST_BYTES = 16;
+
+    private final JsonMapper jsonMapper;
+
+    private volatile OfferListingPayload current;
+
+    public OfferListingPayload payloadFor(OfferListing listing) {
+        OfferListingPayload cached = current;
+        if (cached != null && cached.version() == listing.version()) {
+            return cached;
+        }
+        return serialize(listing);
+    }
+
+    private synchronized OfferListingPayload serialize(OfferListing listing) {
+        OfferListingPayload cached = current;
+        if (cached != null && cached.version() == listing.version()) {
+            return cached;
+        }
+        byte[] body = jsonMapper.writeValueAsBytes(listing.offers());
+        OfferListingPayload payload = new OfferListingPayload(listing.version(), etag(body), body);
+        if (cached == null || cached.version() < listing.version()) {
+            current = payload;
+        }
+        return payload;
+    }
+
+    /**
+     * Derived from the content rather than the version, which restarts with the process and differs between
+     * instances behind the same load balancer.
+     */
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + HexFormat.of().formatHex(digest, 0, ETAG_DIGEST_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
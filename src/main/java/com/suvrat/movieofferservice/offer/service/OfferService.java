@@ -1,29 +1,66 @@
 package com.suvrat.movieofferservice.offer.service;
 
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.cache.AppliedBooking;
+import com.suvrat.movieofferservice.offer.cache.BookingIdempotencyCache;
+import com.suvrat.movieofferservice.offer.cache.EvaluateResultCache;
+import com.suvrat.movieofferservice.offer.cache.OfferCodeCache;
+import com.suvrat.movieofferservice.offer.catalog.CatalogSnapshot;
+import com.suvrat.movieofferservice.offer.catalog.OfferCatalogIndex;
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferBatchResult;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferRequest;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
 import com.suvrat.movieofferservice.offer.dto.AppliedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersPage;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersQuery;
 import com.suvrat.movieofferservice.offer.dto.CreateOfferRequest;
+import com.suvrat.movieofferservice.offer.dto.EligibilityStageStats;
 import com.suvrat.movieofferservice.offer.dto.EvaluateOffersRequest;
 import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.OfferListing;
 import com.suvrat.movieofferservice.offer.dto.OfferResponse;
 import com.suvrat.movieofferservice.offer.exception.OfferValidationException;
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.matching.DimensionDictionary;
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.metrics.OfferEvaluationEvent;
+import com.suvrat.movieofferservice.offer.metrics.OfferMetrics;
+import com.suvrat.movieofferservice.offer.metrics.OfferMetrics.Stage;
+import com.suvrat.movieofferservice.offer.metrics.OfferRedemptionEvent;
 import com.suvrat.movieofferservice.offer.model.Offer;
 import com.suvrat.movieofferservice.offer.model.OfferOrigin;
 import com.suvrat.movieofferservice.offer.model.OfferRedemption;
 import com.suvrat.movieofferservice.offer.model.OfferType;
+import com.suvrat.movieofferservice.offer.pricing.OrderAmount;
 import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
 import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferUsageView;
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageView;
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +68,16 @@ public class OfferService {
 
     private final OfferRepository offerRepository;
     private final OfferRedemptionRepository offerRedemptionRepository;
+    private final OfferUserUsageRepository offerUserUsageRepository;
+    private final OfferCatalogIndex offerCatalogIndex;
+    private final OfferCodeCache offerCodeCache;
+    private final BookingIdempotencyCache bookingIdempotencyCache;
+    private final EvaluateResultCache evaluateResultCache;
+    private final EligibilityChain eligibilityChain;
+    private final FlashSaleCounters flashSaleCounters;
+    private final OfferProperties offerProperties;
+    private final OfferMetrics offerMetrics;
+    private final TransactionTemplate transactionTemplate;
 
     public OfferResponse createOffer(CreateOfferRequest request) {
         validateCreateRequest(request);
@@ -65,72 +112,482 @@ public class OfferService {
                 .offerOrigin(request.offerOrigin())
                 .sourceApp(normalizeNullable(request.sourceApp()))
                 .sourceOfferCode(normalizedSourceOfferCode)
+                .flashSale(Boolean.TRUE.equals(request.flashSale()))
+                .redeemedCount(0L)
                 .build();
 
-        return OfferResponse.from(offerRepository.save(offer));
+        Offer saved = offerRepository.save(offer);
+        offerCodeCache.register(saved);
+        offerCatalogIndex.refresh();
+        return OfferResponse.from(saved);
     }
 
-    public List<OfferResponse> listOffers() {
-        return offerRepository.findAll().stream().map(OfferResponse::from).toList();
+    public OfferListing listOffers() {
+        return offerCatalogIndex.snapshot().listing();
     }
 
-    public List<AppliedOfferResponse> listAppliedOffers() {
-        return offerRedemptionRepository.findAllByOrderByRedeemedAtDesc().stream()
-                .map(AppliedOfferResponse::from)
-                .toList();
+    public AppliedOffersPage listAppliedOffers(AppliedOffersQuery query) {
+        int pageSize = resolvePageSize(query.limit());
+        if (query.from() != null && query.to() != null && !query.from().isBefore(query.to())) {
+            throw new OfferValidationException("from must be before to");
+        }
+        AppliedOffersCursor cursor = isBlank(query.cursor()) ? null : AppliedOffersCursor.decode(query.cursor().trim());
+
+        Long offerId = null;
+        String offerCode = normalizeOfferCode(query.offerCode());
+        if (offerCode != null) {
+            Optional<Offer> offer = resolveOffer(offerCode);
+            if (offer.isEmpty()) {
+                return new AppliedOffersPage(List.of(), null);
+            }
+            offerId = offer.get().getId();
+        }
+
+        List<OfferRedemption> redemptions = offerRedemptionRepository.findPage(
+                normalizeNullable(query.userId()),
+                offerId,
+                query.from(),
+                query.to(),
+                cursor == null ? null : cursor.redeemedAt(),
+                cursor == null ? null : cursor.id(),
+                pageSize + 1);
+
+        String nextCursor = null;
+        if (redemptions.size() > pageSize) {
+            redemptions = redemptions.subList(0, pageSize);
+            OfferRedemption last = redemptions.getLast();
+            nextCursor = new AppliedOffersCursor(last.getRedeemedAt(), last.getId()).encode();
+        }
+        return new AppliedOffersPage(redemptions.stream().map(AppliedOfferResponse::from).toList(), nextCursor);
     }
 
     public List<EvaluatedOfferResponse> evaluateOffers(EvaluateOffersRequest request) {
+        OfferEvaluationEvent event = new OfferEvaluationEvent();
+        event.begin();
         validateEvaluateRequest(request);
-        return offerRepository.findByActiveTrue().stream()
-                .map(offer -> evaluateSingleOffer(offer, request.userId(), request.movieId(), request.theaterId(),
-                        request.paymentPartner(), request.sourceApp(), request.orderAmount()))
-                .filter(Objects::nonNull)
-                .sorted(Comparator.comparing(EvaluatedOfferResponse::estimatedDiscount).reversed())
-                .toList();
+        OrderAmount orderAmount = toOrderAmount(request.orderAmount());
+        long catalogGeneration = offerCatalogIndex.generation();
+        CatalogSnapshot catalog = offerCatalogIndex.snapshot();
+        BookingDimensions booking = bookingDimensions(catalog, request);
+        EvaluateResultCache.Key cacheKey = EvaluateResultCache.Key.of(request.userId(), booking,
+                request.orderAmount(), request.limit(), catalog.version(), catalogGeneration);
+        Optional<List<EvaluatedOfferResponse>> cached = evaluateResultCache.get(cacheKey);
+        if (cached.isPresent()) {
+            if (event.shouldCommit()) {
+                event.cached = true;
+                event.eligibleCount = cached.get().size();
+                event.userIdHash = request.userId().trim().hashCode();
+                event.commit();
+            }
+            return cached.get();
+        }
+
+        long cacheStamp = evaluateResultCache.stamp();
+        EligibilityChain.Run eligibility = eligibilityChain.start();
+        List<Offer> candidates = eligibleCandidates(catalog, booking, orderAmount, eligibility);
+        Map<Long, OfferUsage> usageByOfferId = loadUsage(candidates, request.userId());
+        List<EvaluatedOfferResponse> evaluated = rankEligibleOffers(candidates,
+                offer -> usageByOfferId.getOrDefault(offer.getId(), OfferUsage.NONE), orderAmount, request.limit(),
+                eligibility);
+        eligibility.finish();
+        evaluateResultCache.put(cacheKey, evaluated, cacheStamp);
+        offerMetrics.recordEvaluated(candidates.size(), evaluated.size());
+        if (event.shouldCommit()) {
+            event.candidateCount = candidates.size();
+            event.eligibleCount = evaluated.size();
+            event.userIdHash = request.userId().trim().hashCode();
+            event.commit();
+        }
+        return evaluated;
+    }
+
+    public List<EligibilityStageStats> eligibilityStages() {
+        return eligibilityChain.stats();
+    }
+
+    public List<List<EvaluatedOfferResponse>> evaluateOffersBatch(List<EvaluateOffersRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new OfferValidationException("At least one evaluate request is required");
+        }
+        if (requests.size() > offerProperties.getEvaluate().getMaxBatchSize()) {
+            throw new OfferValidationException("Batch size cannot exceed " + offerProperties.getEvaluate().getMaxBatchSize());
+        }
+        requests.forEach(this::validateEvaluateRequest);
+
+        List<OrderAmount> orderAmounts = requests.stream().map(request -> toOrderAmount(request.orderAmount())).toList();
+        EligibilityChain.Run eligibility = eligibilityChain.start();
+        List<List<Offer>> candidatesPerRequest = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            candidatesPerRequest.add(eligibleCandidates(requests.get(i), orderAmounts.get(i), eligibility));
+        }
+        Set<Long> offerIds = new HashSet<>();
+        candidatesPerRequest.forEach(candidates -> candidates.forEach(offer -> offerIds.add(offer.getId())));
+        Set<String> userIds = new HashSet<>();
+        requests.forEach(request -> userIds.add(request.userId().trim()));
+
+        Map<Long, Long> totalUsageByOfferId = new HashMap<>();
+        Map<String, Map<Long, Long>> userUsageByUserId = new HashMap<>();
+        if (!offerIds.isEmpty()) {
+            long started = System.nanoTime();
+            for (OfferUserUsageView view : offerUserUsageRepository.findUsageByOfferIdsAndUserIds(offerIds, userIds)) {
+                totalUsageByOfferId.put(view.getOfferId(), view.getTotalUsage());
+                if (view.getUserId() != null) {
+                    userUsageByUserId.computeIfAbsent(view.getUserId(), _ -> new HashMap<>())
+                            .put(view.getOfferId(), view.getUserUsage());
+                }
+            }
+            offerMetrics.record(Stage.USAGE_LOOKUP, started);
+        }
+
+        List<List<EvaluatedOfferResponse>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            EvaluateOffersRequest request = requests.get(i);
+            Map<Long, Long> userUsage = userUsageByUserId.getOrDefault(request.userId().trim(), Map.of());
+            List<Offer> candidates = candidatesPerRequest.get(i);
+            List<EvaluatedOfferResponse> evaluated = rankEligibleOffers(candidates, offer -> new OfferUsage(
+                    totalUsageByOfferId.getOrDefault(offer.getId(), 0L),
+                    userUsage.getOrDefault(offer.getId(), 0L)), orderAmounts.get(i), request.limit(), eligibility);
+            offerMetrics.recordEvaluated(candidates.size(), evaluated.size());
+            results.add(evaluated);
+        }
+        eligibility.finish();
+        return results;
     }
 
-    @Transactional
     public ApplyOfferResponse applyOffer(ApplyOfferRequest request) {
         validateApplyRequest(request);
+        ApplyOfferResponse replayed = replay(request);
+        if (replayed != null) {
+            return replayed;
+        }
+
+        OfferRedemptionEvent event = new OfferRedemptionEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.offerCode = normalizeOfferCode(request.code());
+        }
+        RedemptionStrategy strategy = offerProperties.getRedemption().getStrategy();
+        Supplier<RedeemOutcome> attempt = () -> {
+            if (event.isEnabled()) {
+                event.attempts++;
+            }
+            try {
+                return transactionTemplate.execute(_ -> redeem(request, strategy, event));
+            } catch (DuplicateKeyException exception) {
+                bookingIdempotencyCache.markUsed(request.bookingId().trim());
+                throw exception;
+            }
+        };
+        try {
+            RedeemOutcome outcome = strategy == RedemptionStrategy.CONDITIONAL_UPDATE
+                    ? retryOnConflict(attempt)
+                    : attempt.get();
+            recordApplied(request, outcome.response());
+            if (outcome.soldOut()) {
+                evaluateResultCache.evictAll();
+            } else {
+                evaluateResultCache.evictUser(request.userId());
+            }
+            if (event.isEnabled()) {
+                event.applied = true;
+            }
+            return outcome.response();
+        } finally {
+            event.commit();
+        }
+    }
 
-        if (offerRedemptionRepository.existsByBookingId(request.bookingId())) {
+    private RedeemOutcome redeem(
+            ApplyOfferRequest request,
+            RedemptionStrategy strategy,
+            OfferRedemptionEvent event
+    ) {
+        String bookingId = request.bookingId().trim();
+        if (bookingIdempotencyCache.mightExist(bookingId) && offerRedemptionRepository.existsByBookingId(bookingId)) {
             throw new OfferValidationException("Offer already applied for this booking");
         }
 
         Offer offer = findOfferForApply(request.code());
+        boolean flashSale = isFlashSale(offer);
+        if (strategy == RedemptionStrategy.PESSIMISTIC_LOCK && !flashSale) {
+            long lockStarted = event.startTimer();
+            offer = offerRepository.findByIdForUpdate(offer.getId())
+                    .orElseThrow(() -> new OfferValidationException("Offer not found"));
+            event.addLockWait(lockStarted);
+        }
 
-        EvaluatedOfferResponse evaluated = evaluateSingleOffer(
-                offer,
-                request.userId(),
-                request.movieId(),
-                request.theaterId(),
-                request.paymentPartner(),
-                request.sourceApp(),
-                request.orderAmount());
+        OrderAmount orderAmount = toOrderAmount(request.orderAmount());
+        EvaluatedOfferResponse evaluated = null;
+        EligibilityChain.Run eligibility = eligibilityChain.start();
+        DimensionDictionary dictionary = new DimensionDictionary();
+        offer.encodeDimensions(dictionary);
+        if (isWithinValidity(offer) && eligibility.matches(offer, bookingDimensions(dictionary, request), orderAmount)) {
+            evaluated = evaluateSingleOffer(offer, new OfferUsage(offer.getRedeemedCount(), 0), orderAmount,
+                    eligibility);
+        }
+        eligibility.finish();
 
         if (evaluated == null) {
             throw new OfferValidationException("Offer is not eligible for this booking");
         }
+        if (flashSale && !flashSaleCounters.tryReserve(offer)) {
+            throw new OfferValidationException("Offer usage limit reached");
+        }
+        long lockStarted = event.startTimer();
+        int userSlotsClaimed = offerUserUsageRepository.claimUserSlot(offer.getId(), request.userId().trim(),
+                offer.getPerUserUsageLimit());
+        event.addLockWait(lockStarted);
+        if (userSlotsClaimed == 0) {
+            throw new OfferValidationException("Offer usage limit reached for this user");
+        }
 
         OfferRedemption redemption = OfferRedemption.builder()
                 .offer(offer)
-                .bookingId(request.bookingId().trim())
+                .bookingId(bookingId)
                 .userId(request.userId().trim())
                 .orderAmount(request.orderAmount())
                 .discountAmount(evaluated.estimatedDiscount())
                 .build();
-        offerRedemptionRepository.save(redemption);
+        long insertStarted = System.nanoTime();
+        offerRedemptionRepository.saveAndFlush(redemption);
+        event.addInsertTime(insertStarted);
+        offerMetrics.record(Stage.REDEMPTION_INSERT, insertStarted);
+        lockStarted = event.startTimer();
+        int redemptionSlotsClaimed = offerRepository.claimRedemptionSlot(offer.getId());
+        event.addLockWait(lockStarted);
+        if (redemptionSlotsClaimed == 0) {
+            throw new OfferValidationException("Offer usage limit reached");
+        }
+
+        boolean soldOut = offer.getTotalUsageLimit() != null
+                && offerRepository.findRedeemedCountById(offer.getId()) >= offer.getTotalUsageLimit();
+        return new RedeemOutcome(toApplyResponse(offer, redemption.getBookingId(), request.orderAmount(), evaluated),
+                soldOut);
+    }
+
+    public List<ApplyOfferBatchResult> applyOffersBatch(List<ApplyOfferRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new OfferValidationException("At least one apply request is required");
+        }
+        if (requests.size() > offerProperties.getRedemption().getMaxBatchSize()) {
+            throw new OfferValidationException("Batch size cannot exceed " + offerProperties.getRedemption().getMaxBatchSize());
+        }
+        List<ApplyOfferBatchResult> results = retryOnConflict(() -> {
+            try {
+                return transactionTemplate.execute(_ -> redeemBatch(requests));
+            } catch (DuplicateKeyException exception) {
+                requests.stream()
+                        .filter(request -> request != null && !isBlank(request.bookingId()))
+                        .forEach(request -> bookingIdempotencyCache.markUsed(request.bookingId().trim()));
+                throw exception;
+            }
+        });
+        boolean anyApplied = false;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).result() != null) {
+                recordApplied(requests.get(i), results.get(i).result());
+                anyApplied = true;
+            }
+        }
+        if (anyApplied) {
+            evaluateResultCache.evictAll();
+        }
+        return results;
+    }
+
+    private List<ApplyOfferBatchResult> redeemBatch(List<ApplyOfferRequest> requests) {
+        ApplyOfferBatchResult[] results = new ApplyOfferBatchResult[requests.size()];
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ApplyOfferRequest request = requests.get(i);
+            try {
+                validateApplyRequest(request);
+                pending.add(i);
+            } catch (OfferValidationException exception) {
+                results[i] = ApplyOfferBatchResult.failed(request == null ? null : request.bookingId(), exception.getMessage());
+            }
+        }
+        if (pending.isEmpty()) {
+            return List.of(results);
+        }
+
+        Set<String> bookingIds = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        Set<String> userIds = new HashSet<>();
+        for (int i : pending) {
+            ApplyOfferRequest request = requests.get(i);
+            String bookingId = request.bookingId().trim();
+            if (bookingIdempotencyCache.mightExist(bookingId)) {
+                bookingIds.add(bookingId);
+            }
+            codes.add(normalizeOfferCode(request.code()));
+            userIds.add(request.userId().trim());
+        }
+        Set<String> existingBookingIds = bookingIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(offerRedemptionRepository.findExistingBookingIds(bookingIds));
+
+        Map<String, Long> offerIdsByCode = new HashMap<>();
+        codes.forEach(code -> offerCodeCache.resolve(code).ifPresent(offerId -> offerIdsByCode.put(code, offerId)));
+        boolean lockOffers = offerProperties.getRedemption().getStrategy() == RedemptionStrategy.PESSIMISTIC_LOCK;
+        Set<Long> offerIds = new HashSet<>(offerIdsByCode.values());
+        List<Offer> offers = offerIds.isEmpty()
+                ? List.of()
+                : lockOffers ? offerRepository.findAllByIdsForUpdate(offerIds) : offerRepository.findAllById(offerIds);
+        Map<Long, Offer> offersById = new HashMap<>();
+        DimensionDictionary dictionary = new DimensionDictionary();
+        offers.forEach(offer -> {
+            offer.encodeDimensions(dictionary);
+            offersById.put(offer.getId(), offer);
+        });
+
+        Map<UsageKey, Long> userUsage = new HashMap<>();
+        if (!offers.isEmpty()) {
+            for (OfferUserUsageView view : offerUserUsageRepository.findUsageByOfferIdsAndUserIds(offersById.keySet(), userIds)) {
+                if (view.getUserId() != null) {
+                    userUsage.put(new UsageKey(view.getOfferId(), view.getUserId()), view.getUserUsage());
+                }
+            }
+        }
+
+        Set<String> seenBookingIds = new HashSet<>();
+        EligibilityChain.Run eligibility = eligibilityChain.start();
+        Map<UsageKey, Long> claimedByUser = new HashMap<>();
+        Map<Long, Long> claimedByOffer = new TreeMap<>();
+        List<OfferRedemption> redemptions = new ArrayList<>();
+        for (int i : pending) {
+            ApplyOfferRequest request = requests.get(i);
+            String bookingId = request.bookingId().trim();
+            try {
+                if (!seenBookingIds.add(bookingId)) {
+                    throw new OfferValidationException("Offer already applied for this booking");
+                }
+                ApplyOfferResponse replayed = replay(request);
+                if (replayed != null) {
+                    results[i] = ApplyOfferBatchResult.applied(replayed);
+                    continue;
+                }
+                if (existingBookingIds.contains(bookingId)) {
+                    throw new OfferValidationException("Offer already applied for this booking");
+                }
+                Long offerId = offerIdsByCode.get(normalizeOfferCode(request.code()));
+                Offer offer = offerId == null ? null : offersById.get(offerId);
+                if (offer == null) {
+                    throw new OfferValidationException("Offer not found");
+                }
+                UsageKey key = new UsageKey(offer.getId(), request.userId().trim());
+                OfferUsage usage = new OfferUsage(
+                        offer.getRedeemedCount() + claimedByOffer.getOrDefault(offer.getId(), 0L),
+                        userUsage.getOrDefault(key, 0L) + claimedByUser.getOrDefault(key, 0L));
+
+                OrderAmount orderAmount = toOrderAmount(request.orderAmount());
+                EvaluatedOfferResponse evaluated = null;
+                if (isWithinValidity(offer)
+                        && eligibility.matches(offer, bookingDimensions(dictionary, request), orderAmount)) {
+                    evaluated = evaluateSingleOffer(offer, usage, orderAmount, eligibility);
+                }
+                if (evaluated == null) {
+                    throw new OfferValidationException("Offer is not eligible for this booking");
+                }
+                if (isFlashSale(offer) && !flashSaleCounters.tryReserve(offer)) {
+                    throw new OfferValidationException("Offer usage limit reached");
+                }
+
+                claimedByOffer.merge(offer.getId(), 1L, Long::sum);
+                claimedByUser.merge(key, 1L, Long::sum);
+                redemptions.add(OfferRedemption.builder()
+                        .offer(offer)
+                        .bookingId(bookingId)
+                        .userId(key.userId())
+                        .orderAmount(request.orderAmount())
+                        .discountAmount(evaluated.estimatedDiscount())
+                        .build());
+                results[i] = ApplyOfferBatchResult.applied(
+                        toApplyResponse(offer, bookingId, request.orderAmount(), evaluated));
+            } catch (OfferValidationException exception) {
+                results[i] = ApplyOfferBatchResult.failed(bookingId, exception.getMessage());
+            }
+        }
+
+        claimedByOffer.forEach((offerId, count) -> {
+            if (lockOffers) {
+                Offer offer = offersById.get(offerId);
+                offer.setRedeemedCount(offer.getRedeemedCount() + count);
+            } else if (offerRepository.claimRedemptionSlots(offerId, count) == 0) {
+                throw new OptimisticLockingFailureException("Offer usage changed while applying batch");
+            }
+        });
+        claimedByUser.forEach((key, count) -> {
+            int limit = offersById.get(key.offerId()).getPerUserUsageLimit();
+            if (offerUserUsageRepository.claimUserSlots(key.offerId(), key.userId(), count, limit) == 0) {
+                throw new OptimisticLockingFailureException("Per-user usage changed while applying batch");
+            }
+        });
+        eligibility.finish();
+        long insertStarted = System.nanoTime();
+        offerRedemptionRepository.saveAll(redemptions);
+        offerRedemptionRepository.flush();
+        offerMetrics.record(Stage.REDEMPTION_INSERT, insertStarted);
+        return List.of(results);
+    }
+
+    /**
+     * Returns the original response when the booking was applied recently with the same code, user and amount,
+     * and rejects the request when it was applied with anything else. Returns {@code null} when the booking is not
+     * in the recent set, leaving the decision to the database.
+     */
+    private ApplyOfferResponse replay(ApplyOfferRequest request) {
+        Optional<AppliedBooking> applied = bookingIdempotencyCache.recent(request.bookingId().trim());
+        if (applied.isEmpty()) {
+            return null;
+        }
+        if (!applied.get().matches(normalizeOfferCode(request.code()), request.userId().trim(), request.orderAmount())) {
+            throw new OfferValidationException("Offer already applied for this booking");
+        }
+        return applied.get().response();
+    }
+
+    private void recordApplied(ApplyOfferRequest request, ApplyOfferResponse response) {
+        bookingIdempotencyCache.record(new AppliedBooking(normalizeOfferCode(request.code()), request.userId().trim(),
+                request.orderAmount(), response));
+    }
 
+    private ApplyOfferResponse toApplyResponse(
+            Offer offer,
+            String bookingId,
+            BigDecimal orderAmount,
+            EvaluatedOfferResponse evaluated
+    ) {
         return new ApplyOfferResponse(
                 offer.getCode(),
-                redemption.getBookingId(),
-                request.orderAmount().setScale(2, RoundingMode.HALF_UP),
+                bookingId,
+                orderAmount.setScale(2, RoundingMode.HALF_UP),
                 evaluated.estimatedDiscount().setScale(2, RoundingMode.HALF_UP),
                 evaluated.finalPayable().setScale(2, RoundingMode.HALF_UP)
         );
     }
 
+    private <T> T retryOnConflict(Supplier<T> attempt) {
+        OfferProperties.Redemption redemption = offerProperties.getRedemption();
+        long backoffMillis = redemption.getInitialBackoff().toMillis();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrencyFailureException | DuplicateKeyException exception) {
+                if (attemptNumber >= redemption.getMaxAttempts()) {
+                    throw exception;
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw exception;
+                }
+                backoffMillis = Math.min(backoffMillis * 2, redemption.getMaxBackoff().toMillis());
+            }
+        }
+    }
+
     private void validateCreateRequest(CreateOfferRequest request) {
         if (request == null) {
             throw new OfferValidationException("Request body is required");
@@ -172,6 +629,9 @@ public class OfferService {
         if (request == null || isBlank(request.userId()) || request.orderAmount() == null) {
             throw new OfferValidationException("userId and orderAmount are required");
         }
+        if (request.limit() != null && request.limit() <= 0) {
+            throw new OfferValidationException("limit must be greater than 0");
+        }
     }
 
     private void validateApplyRequest(ApplyOfferRequest request) {
@@ -181,89 +641,177 @@ public class OfferService {
         }
     }
 
-    private EvaluatedOfferResponse evaluateSingleOffer(
-            Offer offer,
-            String userId,
-            String movieId,
-            String theaterId,
-            String paymentPartner,
-            String sourceApp,
-            BigDecimal orderAmount
-    ) {
-        if (!Boolean.TRUE.equals(offer.getActive())) {
-            return null;
-        }
+    /**
+     * Encodes the request against {@code dictionary}, in which the offers it is matched against were encoded.
+     */
+    private BookingDimensions bookingDimensions(DimensionDictionary dictionary, ApplyOfferRequest request) {
+        return BookingDimensions.of(dictionary, request.movieId(), request.theaterId(), request.paymentPartner(),
+                request.userId(), request.sourceApp());
+    }
 
+    private boolean isWithinValidity(Offer offer) {
         LocalDateTime now = LocalDateTime.now();
-        if (now.isBefore(offer.getValidFrom()) || now.isAfter(offer.getValidTill())) {
-            return null;
-        }
+        return !now.isBefore(offer.getValidFrom()) && !now.isAfter(offer.getValidTill());
+    }
 
-        if (orderAmount.compareTo(offer.getMinOrderAmount()) < 0) {
-            return null;
-        }
+    private List<Offer> eligibleCandidates(
+            EvaluateOffersRequest request,
+            OrderAmount orderAmount,
+            EligibilityChain.Run eligibility
+    ) {
+        CatalogSnapshot catalog = offerCatalogIndex.snapshot();
+        return eligibleCandidates(catalog, bookingDimensions(catalog, request), orderAmount, eligibility);
+    }
 
-        if (!isApplicable(offer.getApplicableMovieId(), movieId) || !isApplicable(offer.getApplicableTheaterId(), theaterId)
-                || !isApplicable(offer.getPaymentPartner(), paymentPartner)) {
-            return null;
-        }
-        if (!isApplicable(offer.getAssignedUserId(), userId)) {
-            return null;
-        }
-        if (offer.getOfferOrigin() == OfferOrigin.THIRD_PARTY && !isApplicable(offer.getSourceApp(), sourceApp)) {
-            return null;
+    private List<Offer> eligibleCandidates(
+            CatalogSnapshot catalog,
+            BookingDimensions booking,
+            OrderAmount orderAmount,
+            EligibilityChain.Run eligibility
+    ) {
+        long started = System.nanoTime();
+        List<Offer> candidates = offerCatalogIndex.eligibleOffers(catalog, booking, orderAmount, eligibility);
+        offerMetrics.record(Stage.ELIGIBILITY, started);
+        return candidates;
+    }
+
+    private BookingDimensions bookingDimensions(CatalogSnapshot catalog, EvaluateOffersRequest request) {
+        return catalog.bookingDimensions(request.movieId(), request.theaterId(), request.paymentPartner(),
+                request.userId(), request.sourceApp());
+    }
+
+    private List<EvaluatedOfferResponse> rankEligibleOffers(
+            List<Offer> candidates,
+            Function<Offer, OfferUsage> usageLookup,
+            OrderAmount orderAmount,
+            Integer limit,
+            EligibilityChain.Run eligibility
+    ) {
+        if (limit != null) {
+            return topEligibleOffers(candidates, usageLookup, orderAmount, limit, eligibility);
         }
+        long started = System.nanoTime();
+        List<EvaluatedOfferResponse> evaluated = candidates.stream()
+                .map(offer -> evaluateSingleOffer(offer, usageLookup.apply(offer), orderAmount, eligibility))
+                .filter(Objects::nonNull)
+                .toList();
+        offerMetrics.record(Stage.DISCOUNT, started);
+        started = System.nanoTime();
+        List<EvaluatedOfferResponse> sorted = evaluated.stream()
+                .sorted(Comparator.comparing(EvaluatedOfferResponse::estimatedDiscount).reversed())
+                .toList();
+        offerMetrics.record(Stage.SORT, started);
+        return sorted;
+    }
 
-        long totalUsage = offerRedemptionRepository.countByOffer(offer);
-        if (offer.getTotalUsageLimit() != null && totalUsage >= offer.getTotalUsageLimit()) {
-            return null;
+    /**
+     * Keeps the best {@code limit} offers in a min-heap. Candidates arrive in descending discount-ceiling order, so
+     * once the heap is full and a candidate's ceiling cannot beat the smallest kept discount, no later one can.
+     * Ties keep candidate order, as the stable sort of the unlimited path does.
+     */
+    private List<EvaluatedOfferResponse> topEligibleOffers(
+            List<Offer> candidates,
+            Function<Offer, OfferUsage> usageLookup,
+            OrderAmount orderAmount,
+            int limit,
+            EligibilityChain.Run eligibility
+    ) {
+        PriorityQueue<RankedOffer> best = new PriorityQueue<>(Math.min(limit, candidates.size()) + 1,
+                Comparator.comparingLong(RankedOffer::discountCents)
+                        .thenComparing(Comparator.comparingInt(RankedOffer::sequence).reversed()));
+        long started = System.nanoTime();
+        for (int sequence = 0; sequence < candidates.size(); sequence++) {
+            Offer offer = candidates.get(sequence);
+            if (best.size() == limit && orderAmount.toCents(offer.getPricing().discountCeilingUnits(orderAmount))
+                    <= best.peek().discountCents()) {
+                break;
+            }
+            long discountUnits = eligibleDiscountUnits(offer, usageLookup.apply(offer), orderAmount, eligibility);
+            if (discountUnits <= 0) {
+                continue;
+            }
+            long discountCents = orderAmount.toCents(discountUnits);
+            if (best.size() < limit) {
+                best.add(new RankedOffer(offer, discountUnits, discountCents, sequence));
+            } else if (discountCents > best.peek().discountCents()) {
+                best.poll();
+                best.add(new RankedOffer(offer, discountUnits, discountCents, sequence));
+            }
         }
+        offerMetrics.record(Stage.DISCOUNT, started);
+        started = System.nanoTime();
+        List<EvaluatedOfferResponse> sorted = best.stream()
+                .sorted(Comparator.comparingLong(RankedOffer::discountCents).reversed()
+                        .thenComparingInt(RankedOffer::sequence))
+                .map(ranked -> toEvaluatedResponse(ranked.offer(), ranked.discountUnits(), orderAmount))
+                .toList();
+        offerMetrics.record(Stage.SORT, started);
+        return sorted;
+    }
 
-        long userUsage = offerRedemptionRepository.countByOfferAndUserId(offer, userId.trim());
-        if (userUsage >= offer.getPerUserUsageLimit()) {
-            return null;
+    private Map<Long, OfferUsage> loadUsage(List<Offer> offers, String userId) {
+        if (offers.isEmpty()) {
+            return Map.of();
+        }
+        long started = System.nanoTime();
+        List<Long> offerIds = offers.stream().map(Offer::getId).toList();
+        Map<Long, OfferUsage> usageByOfferId = new HashMap<>();
+        for (OfferUsageView view : offerUserUsageRepository.findUsageByOfferIds(offerIds, userId.trim())) {
+            usageByOfferId.put(view.getOfferId(), new OfferUsage(view.getTotalUsage(), view.getUserUsage()));
         }
+        offerMetrics.record(Stage.USAGE_LOOKUP, started);
+        return usageByOfferId;
+    }
 
-        BigDecimal discount = calculateDiscount(offer, orderAmount);
-        if (discount.compareTo(BigDecimal.ZERO) <= 0) {
-            return null;
+    private EvaluatedOfferResponse evaluateSingleOffer(
+            Offer offer,
+            OfferUsage usage,
+            OrderAmount orderAmount,
+            EligibilityChain.Run eligibility
+    ) {
+        long discountUnits = eligibleDiscountUnits(offer, usage, orderAmount, eligibility);
+        return discountUnits > 0 ? toEvaluatedResponse(offer, discountUnits, orderAmount) : null;
+    }
+
+    private long eligibleDiscountUnits(
+            Offer offer,
+            OfferUsage usage,
+            OrderAmount orderAmount,
+            EligibilityChain.Run eligibility
+    ) {
+        if (!eligibility.passesUsage(offer, usage.totalUsage(), usage.userUsage())) {
+            return 0;
         }
+        return offer.getPricing().discountUnits(orderAmount);
+    }
 
-        BigDecimal finalPayable = orderAmount.subtract(discount);
+    private EvaluatedOfferResponse toEvaluatedResponse(Offer offer, long discountUnits, OrderAmount orderAmount) {
         return new EvaluatedOfferResponse(
                 offer.getCode(),
                 offer.getTitle(),
-                discount.setScale(2, RoundingMode.HALF_UP),
-                finalPayable.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP),
+                OrderAmount.centsToBigDecimal(orderAmount.toCents(discountUnits)),
+                OrderAmount.centsToBigDecimal(orderAmount.finalPayableCents(discountUnits)),
                 "ELIGIBLE"
         );
     }
 
-    private BigDecimal calculateDiscount(Offer offer, BigDecimal orderAmount) {
-        BigDecimal discount;
-        if (offer.getOfferType() == OfferType.PERCENTAGE) {
-            discount = orderAmount.multiply(offer.getDiscountValue()).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
-        } else {
-            discount = offer.getDiscountValue();
+    private OrderAmount toOrderAmount(BigDecimal orderAmount) {
+        try {
+            return OrderAmount.of(orderAmount);
+        } catch (ArithmeticException exception) {
+            throw new OfferValidationException("orderAmount is out of range");
         }
-
-        if (offer.getMaxDiscount() != null && discount.compareTo(offer.getMaxDiscount()) > 0) {
-            discount = offer.getMaxDiscount();
-        }
-        if (discount.compareTo(orderAmount) > 0) {
-            discount = orderAmount;
-        }
-        return discount;
     }
 
-    private boolean isApplicable(String ruleValue, String requestValue) {
-        if (isBlank(ruleValue)) {
-            return true;
+    private int resolvePageSize(Integer limit) {
+        OfferProperties.Applied applied = offerProperties.getApplied();
+        if (limit == null) {
+            return applied.getDefaultPageSize();
         }
-        if (isBlank(requestValue)) {
-            return false;
+        if (limit <= 0 || limit > applied.getMaxPageSize()) {
+            throw new OfferValidationException("limit must be between 1 and " + applied.getMaxPageSize());
         }
-        return ruleValue.trim().equalsIgnoreCase(requestValue.trim());
+        return limit;
     }
 
     private String normalizeNullable(String value) {
@@ -285,12 +833,37 @@ public class OfferService {
         if (normalizedCode == null) {
             throw new OfferValidationException("code is required");
         }
-        return offerRepository.findByCode(normalizedCode)
-                .or(() -> offerRepository.findBySourceOfferCode(normalizedCode))
-                .orElseThrow(() -> new OfferValidationException("Offer not found"));
+        return resolveOffer(normalizedCode).orElseThrow(() -> new OfferValidationException("Offer not found"));
+    }
+
+    /**
+     * Looks up an internal or third-party code through the code cache, dropping a cached id whose offer is gone.
+     */
+    private Optional<Offer> resolveOffer(String normalizedCode) {
+        Optional<Offer> offer = offerCodeCache.resolve(normalizedCode).flatMap(offerRepository::findById);
+        if (offer.isEmpty()) {
+            offerCodeCache.evict(normalizedCode);
+        }
+        return offer;
+    }
+
+    private boolean isFlashSale(Offer offer) {
+        return Boolean.TRUE.equals(offer.getFlashSale()) && offer.getTotalUsageLimit() != null;
     }
 
     private boolean isBlank(String value) {
         return value == null || value.trim().isEmpty();
     }
+
+    private record UsageKey(Long offerId, String userId) {
+    }
+
+    /**
+     * {@code soldOut} is read after this redemption claimed its slot, inside the same transaction.
+     */
+    private record RedeemOutcome(ApplyOfferResponse response, boolean soldOut) {
+    }
+
+    private record RankedOffer(Offer offer, long discountUnits, long discountCents, int sequence) {
+    }
 }
@@ -0,0 +1,6 @@
+package com.suvrat.movieofferservice.offer.service;
+
+record OfferUsage(long totalUsage, long userUsage) {
+
+    static final OfferUsage NONE = new OfferUsage(0, 0);
+}
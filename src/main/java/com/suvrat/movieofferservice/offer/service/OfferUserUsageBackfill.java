@@ -0,0 +1,25 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Inserts the per-user counters missing for redemptions already in {@code offer_redemptions}.
+ * {@link OfferDataMigrations} runs the same statement once per database; this is for repairing a live database.
+ * Existing counters are left alone, so it never overwrites slots that concurrent applies are claiming.
+ */
+@Component
+@RequiredArgsConstructor
+public class OfferUserUsageBackfill {
+
+    private final OfferUserUsageRepository offerUserUsageRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public int backfill() {
+        Integer rows = transactionTemplate.execute(_ -> offerUserUsageRepository.backfillFromRedemptions());
+        return rows == null ? 0 : rows;
+    }
+}
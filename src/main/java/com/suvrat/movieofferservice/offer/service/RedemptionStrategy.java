@@ -0,0 +1,6 @@
+package com.suvrat.movieofferservice.offer.service;
+
+public enum RedemptionStrategy {
+    PESSIMISTIC_LOCK,
+    CONDITIONAL_UPDATE
+}
@@ -0,0 +1,50 @@
+package com.suvrat.movieofferservice.offer.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class StripedPermits {
+
+    // one cell per 64-byte cache line so stripes do not false-share
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    StripedPermits(long permits, int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        long share = permits / stripes;
+        long remainder = permits % stripes;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            cells.set(stripe * PADDING, share + (stripe < remainder ? 1 : 0));
+        }
+    }
+
+    boolean tryAcquire() {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int cell = ((start + i) % stripes) * PADDING;
+            long available = cells.get(cell);
+            while (available > 0) {
+                if (cells.compareAndSet(cell, available, available - 1)) {
+                    return true;
+                }
+                available = cells.get(cell);
+            }
+        }
+        return false;
+    }
+
+    void release() {
+        cells.incrementAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING);
+    }
+
+    long available() {
+        long total = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            total += cells.get(stripe * PADDING);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,47 @@
+package com.suvrat.movieofferservice.config;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BoundedDataSourceTest {
+
+    @Test
+    void shouldHoldPermitUntilConnectionIsClosed() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        BoundedDataSource dataSource = new BoundedDataSource(target, 1, Duration.ofMillis(20));
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(0, dataSource.getAvailablePermits());
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        connection.close();
+        connection.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(physical, times(2)).close();
+
+        dataSource.getConnection().close();
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void shouldReturnPermitWhenTargetFails() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"));
+        BoundedDataSource dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(20));
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+}
@@ -1,21 +1,45 @@
 package com.suvrat.movieofferservice.offer;
 
+import com.suvrat.movieofferservice.offer.cache.BookingIdempotencyCache;
+import com.suvrat.movieofferservice.offer.catalog.OfferCatalogIndex;
+import com.suvrat.movieofferservice.offer.catalog.OfferExpirySweeper;
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferBatchResult;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferRequest;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
 import com.suvrat.movieofferservice.offer.dto.AppliedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersPage;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersQuery;
 import com.suvrat.movieofferservice.offer.dto.CreateOfferRequest;
 import com.suvrat.movieofferservice.offer.dto.EvaluateOffersRequest;
 import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.OfferListing;
 import com.suvrat.movieofferservice.offer.dto.OfferResponse;
 import com.suvrat.movieofferservice.offer.exception.OfferValidationException;
+import com.suvrat.movieofferservice.offer.model.Offer;
 import com.suvrat.movieofferservice.offer.model.OfferOrigin;
 import com.suvrat.movieofferservice.offer.model.OfferType;
+import com.suvrat.movieofferservice.offer.model.OfferUserUsageId;
 import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
 import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageRepository;
+import com.suvrat.movieofferservice.offer.service.AppliedOffersExporter;
+import com.suvrat.movieofferservice.offer.service.FlashSaleCounters;
 import com.suvrat.movieofferservice.offer.service.OfferService;
+import com.suvrat.movieofferservice.offer.service.OfferUserUsageBackfill;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +47,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -38,19 +64,49 @@ class OfferControllerIntegrationTest {
     @Autowired
     private OfferRedemptionRepository offerRedemptionRepository;
 
+    @Autowired
+    private OfferUserUsageRepository offerUserUsageRepository;
+
+    @Autowired
+    private OfferUserUsageBackfill offerUserUsageBackfill;
+
+    @Autowired
+    private OfferCatalogIndex offerCatalogIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private FlashSaleCounters flashSaleCounters;
+
+    @Autowired
+    private AppliedOffersExporter appliedOffersExporter;
+
+    @Autowired
+    private OfferExpirySweeper offerExpirySweeper;
+
+    @Autowired
+    private BookingIdempotencyCache bookingIdempotencyCache;
+
     @BeforeEach
     void cleanup() {
+        offerUserUsageRepository.deleteAll();
         offerRedemptionRepository.deleteAll();
         offerRepository.deleteAll();
+        offerCatalogIndex.refresh();
+        bookingIdempotencyCache.rebuild();
     }
 
     @Test
     void shouldCreateAndListOffers() {
+        long versionBefore = offerService.listOffers().version();
         OfferResponse created = offerService.createOffer(createOfferRequest("WELCOME20", 2, null));
-        List<OfferResponse> offers = offerService.listOffers();
+        OfferListing listing = offerService.listOffers();
 
         assertEquals("WELCOME20", created.code());
-        assertTrue(offers.stream().anyMatch(offer -> "WELCOME20".equals(offer.code())));
+        assertTrue(listing.offers().stream().anyMatch(offer -> "WELCOME20".equals(offer.code())));
+        assertTrue(listing.version() > versionBefore);
+        assertSame(listing, offerService.listOffers());
     }
 
     @Test
@@ -58,7 +114,7 @@ class OfferControllerIntegrationTest {
         offerService.createOffer(createOfferRequest("MOVIE30", 3, "PAYTM"));
 
         List<EvaluatedOfferResponse> evaluated = offerService.evaluateOffers(new EvaluateOffersRequest(
-                "user-101", "movie-1", "theater-1", "PAYTM", null, new BigDecimal("400")
+                "user-101", "movie-1", "theater-1", "PAYTM", null, new BigDecimal("400"), null
         ));
 
         assertFalse(evaluated.isEmpty());
@@ -73,6 +129,48 @@ class OfferControllerIntegrationTest {
         assertEquals(new BigDecimal("280.00"), applied.finalPayable());
     }
 
+    @Test
+    void shouldLoadUsageWithSingleQueryPerEvaluateCall() {
+        for (int i = 0; i < 5; i++) {
+            offerService.createOffer(createOfferRequest("BULK" + i, 1, null));
+        }
+        offerService.applyOffer(new ApplyOfferRequest(
+                "BULK0", "user-400", "booking-400", "movie-4", "theater-4", "CARD", null, new BigDecimal("400")
+        ));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<EvaluatedOfferResponse> evaluated = offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-400", "movie-4", "theater-4", "CARD", null, new BigDecimal("400"), null
+        ));
+
+        assertEquals(4, evaluated.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldEvaluateBatchInRequestOrderWithSingleUsageQuery() {
+        offerService.createOffer(createOfferRequest("BATCH1", 1, null));
+        offerService.createOffer(createOfferRequest("PAYTMONLY", 2, "PAYTM"));
+        offerService.applyOffer(new ApplyOfferRequest(
+                "BATCH1", "user-700", "booking-700", "movie-7", "theater-7", "CARD", null, new BigDecimal("400")
+        ));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<List<EvaluatedOfferResponse>> results = offerService.evaluateOffersBatch(List.of(
+                new EvaluateOffersRequest("user-700", "movie-7", "theater-7", "PAYTM", null, new BigDecimal("400"), null),
+                new EvaluateOffersRequest("user-701", "movie-7", "theater-7", "CARD", null, new BigDecimal("400"), null),
+                new EvaluateOffersRequest("user-701", "movie-7", "theater-7", "CARD", null, new BigDecimal("50"), null)
+        ));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, results.size());
+        assertEquals(List.of("PAYTMONLY"), results.get(0).stream().map(EvaluatedOfferResponse::code).toList());
+        assertEquals(List.of("BATCH1"), results.get(1).stream().map(EvaluatedOfferResponse::code).toList());
+        assertTrue(results.get(2).isEmpty());
+    }
+
     @Test
     void shouldRejectApplyWhenPerUserLimitReached() {
         offerService.createOffer(createOfferRequest("LIMIT1", 1, null));
@@ -86,15 +184,51 @@ class OfferControllerIntegrationTest {
         )));
     }
 
+    @Test
+    void shouldNotServeCachedEvaluationAfterUserReachesPerUserLimit() {
+        offerService.createOffer(createOfferRequest("ONCEONLY", 1, null));
+        EvaluateOffersRequest request = new EvaluateOffersRequest(
+                "user-900", "movie-9", "theater-9", "CARD", null, new BigDecimal("400"), null);
+        EvaluateOffersRequest otherUser = new EvaluateOffersRequest(
+                "user-901", "movie-9", "theater-9", "CARD", null, new BigDecimal("400"), null);
+
+        assertEquals(List.of("ONCEONLY"), offerService.evaluateOffers(request).stream()
+                .map(EvaluatedOfferResponse::code).toList());
+        List<EvaluatedOfferResponse> otherUserBefore = offerService.evaluateOffers(otherUser);
+        offerService.applyOffer(new ApplyOfferRequest(
+                "ONCEONLY", "user-900", "booking-900", "movie-9", "theater-9", "CARD", null, new BigDecimal("400")
+        ));
+
+        assertTrue(offerService.evaluateOffers(request).isEmpty());
+        assertSame(otherUserBefore, offerService.evaluateOffers(otherUser));
+    }
+
+    @Test
+    void shouldBackfillPerUserUsageFromRedemptionHistory() {
+        OfferResponse offer = offerService.createOffer(createOfferRequest("BACKFILL", 3, null));
+        for (int i = 0; i < 2; i++) {
+            offerService.applyOffer(new ApplyOfferRequest(
+                    "BACKFILL", "user-600", "booking-60" + i, "movie-6", "theater-6", "CARD", null, new BigDecimal("400")
+            ));
+        }
+        offerUserUsageRepository.deleteAll();
+
+        int rows = offerUserUsageBackfill.backfill();
+
+        assertEquals(1, rows);
+        assertEquals(2L, offerUserUsageRepository.findById(new OfferUserUsageId(offer.id(), "user-600"))
+                .orElseThrow().getUsed());
+    }
+
     @Test
     void shouldEvaluateUserSpecificOfferOnlyForAssignedUser() {
         offerService.createOffer(createOfferRequest("VIPUSER", 2, null, "user-vip", OfferOrigin.INTERNAL, null, null));
 
         List<EvaluatedOfferResponse> eligibleForVip = offerService.evaluateOffers(new EvaluateOffersRequest(
-                "user-vip", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")
+                "user-vip", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null
         ));
         List<EvaluatedOfferResponse> notEligibleForOther = offerService.evaluateOffers(new EvaluateOffersRequest(
-                "user-other", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")
+                "user-other", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null
         ));
 
         assertFalse(eligibleForVip.isEmpty());
@@ -102,6 +236,27 @@ class OfferControllerIntegrationTest {
         assertTrue(notEligibleForOther.isEmpty());
     }
 
+    @Test
+    void shouldEvaluateOnlyOffersMatchingBookingDimensions() {
+        LocalDateTime now = LocalDateTime.now();
+        offerService.createOffer(new CreateOfferRequest(
+                "MOVIEONLY", "Movie only", "Offer for tests", OfferType.FLAT, new BigDecimal("50"), null,
+                new BigDecimal("100"), now.minusDays(1), now.plusDays(2), 100, 2, true,
+                "movie-5", null, null, null, OfferOrigin.INTERNAL, null, null, false
+        ));
+        offerService.createOffer(createOfferRequest("ANYMOVIE", 2, null));
+
+        List<EvaluatedOfferResponse> matchingMovie = offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-500", " MOVIE-5 ", "theater-5", "CARD", null, new BigDecimal("400"), null
+        ));
+        List<EvaluatedOfferResponse> otherMovie = offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-500", "movie-6", "theater-5", "CARD", null, new BigDecimal("400"), null
+        ));
+
+        assertEquals(List.of("ANYMOVIE", "MOVIEONLY"), matchingMovie.stream().map(EvaluatedOfferResponse::code).toList());
+        assertEquals(List.of("ANYMOVIE"), otherMovie.stream().map(EvaluatedOfferResponse::code).toList());
+    }
+
     @Test
     void shouldApplyOfferUsingThirdPartySourceOfferCode() {
         offerService.createOffer(createOfferRequest(
@@ -109,7 +264,7 @@ class OfferControllerIntegrationTest {
         ));
 
         List<EvaluatedOfferResponse> evaluated = offerService.evaluateOffers(new EvaluateOffersRequest(
-                "user-300", "movie-3", "theater-3", "CARD", "PAYTM", new BigDecimal("400")
+                "user-300", "movie-3", "theater-3", "CARD", "PAYTM", new BigDecimal("400"), null
         ));
         assertFalse(evaluated.isEmpty());
 
@@ -120,6 +275,165 @@ class OfferControllerIntegrationTest {
         assertEquals(new BigDecimal("120.00"), applied.discountAmount());
     }
 
+    @Test
+    void shouldNeverOverRedeemFlashSaleOfferUnderConcurrency() throws Exception {
+        OfferResponse flashOffer = offerService.createOffer(flashSaleOfferRequest("FLASH5", 5));
+
+        List<Callable<Boolean>> applies = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String suffix = String.valueOf(i);
+            applies.add(() -> {
+                try {
+                    offerService.applyOffer(new ApplyOfferRequest(
+                            "FLASH5", "user-f" + suffix, "booking-f" + suffix, "movie-1", "theater-1", "CARD", null,
+                            new BigDecimal("500")
+                    ));
+                    return true;
+                } catch (OfferValidationException exception) {
+                    return false;
+                }
+            });
+        }
+        int succeeded = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (Future<Boolean> result : executor.invokeAll(applies)) {
+                if (result.get()) {
+                    succeeded++;
+                }
+            }
+        }
+
+        assertEquals(5, succeeded);
+        assertEquals(5, offerRedemptionRepository.countByOfferId(flashOffer.id()));
+        assertEquals(OptionalLong.of(0), flashSaleCounters.remaining(flashOffer.id()));
+        assertEquals(5L, offerRepository.findById(flashOffer.id()).orElseThrow().getRedeemedCount());
+    }
+
+    @Test
+    void shouldRefuseFlashSaleApplyWhenAnotherInstanceUsedTheLimit() {
+        OfferResponse flashOffer = offerService.createOffer(flashSaleOfferRequest("FLASHX", 2));
+        offerService.applyOffer(new ApplyOfferRequest(
+                "FLASHX", "user-x1", "booking-x1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")
+        ));
+        Offer row = offerRepository.findById(flashOffer.id()).orElseThrow();
+        row.setRedeemedCount(2);
+        offerRepository.save(row);
+
+        OfferValidationException exception = assertThrows(OfferValidationException.class, () ->
+                offerService.applyOffer(new ApplyOfferRequest(
+                        "FLASHX", "user-x2", "booking-x2", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")
+                )));
+
+        assertEquals("Offer usage limit reached", exception.getMessage());
+        assertEquals(1, offerRedemptionRepository.countByOfferId(flashOffer.id()));
+        assertEquals(OptionalLong.of(1), flashSaleCounters.remaining(flashOffer.id()));
+    }
+
+    @Test
+    void shouldReturnFlashSaleReservationWhenApplyRollsBack() {
+        OfferResponse flashOffer = offerService.createOffer(flashSaleOfferRequest("FLASH2", 2));
+        String oversizedBookingId = "booking-" + "x".repeat(64);
+
+        assertThrows(RuntimeException.class, () -> offerService.applyOffer(new ApplyOfferRequest(
+                "FLASH2", "user-f1", oversizedBookingId, "movie-1", "theater-1", "CARD", null, new BigDecimal("500")
+        )));
+
+        assertEquals(OptionalLong.of(2), flashSaleCounters.remaining(flashOffer.id()));
+        assertEquals(0, offerRedemptionRepository.countByOfferId(flashOffer.id()));
+    }
+
+    @Test
+    void shouldReplayOriginalResponseWhenApplyIsRetried() {
+        OfferResponse offer = offerService.createOffer(createOfferRequest("RETRY10", 1, null));
+        ApplyOfferRequest request = new ApplyOfferRequest(
+                "RETRY10", "user-900", "booking-900", "movie-9", "theater-9", "CARD", null, new BigDecimal("400")
+        );
+
+        ApplyOfferResponse first = offerService.applyOffer(request);
+        ApplyOfferResponse retried = offerService.applyOffer(request);
+
+        assertEquals(first, retried);
+        assertEquals(1, offerRedemptionRepository.countByOfferId(offer.id()));
+        OfferValidationException exception = assertThrows(OfferValidationException.class, () ->
+                offerService.applyOffer(new ApplyOfferRequest(
+                        "RETRY10", "user-901", "booking-900", "movie-9", "theater-9", "CARD", null, new BigDecimal("400")
+                )));
+        assertEquals("Offer already applied for this booking", exception.getMessage());
+
+        bookingIdempotencyCache.rebuild();
+        assertTrue(bookingIdempotencyCache.mightExist("booking-900"));
+        assertThrows(OfferValidationException.class, () -> offerService.applyOffer(request));
+    }
+
+    @Test
+    void shouldApplyBatchAndReportPerItemOutcome() {
+        OfferResponse offer = offerService.createOffer(createOfferRequest("GROUP10", 1, null));
+        offerService.applyOffer(new ApplyOfferRequest(
+                "GROUP10", "user-800", "booking-800", "movie-8", "theater-8", "CARD", null, new BigDecimal("400")
+        ));
+
+        List<ApplyOfferBatchResult> results = offerService.applyOffersBatch(List.of(
+                new ApplyOfferRequest("GROUP10", "user-801", "booking-801", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("400")),
+                new ApplyOfferRequest("group10", "user-802", "booking-802", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("500")),
+                new ApplyOfferRequest("GROUP10", "user-802", "booking-803", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("500")),
+                new ApplyOfferRequest("GROUP10", "user-804", "booking-800", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("400")),
+                new ApplyOfferRequest("GROUP10", "user-805", "booking-801", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("400")),
+                new ApplyOfferRequest("NOPE", "user-806", "booking-806", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("400"))
+        ));
+
+        assertEquals(List.of("APPLIED", "APPLIED", "FAILED", "FAILED", "FAILED", "FAILED"),
+                results.stream().map(ApplyOfferBatchResult::status).toList());
+        assertEquals(new BigDecimal("150.00"), results.get(1).result().discountAmount());
+        assertEquals("Offer not found", results.get(5).message());
+        assertEquals(3, offerRedemptionRepository.countByOfferId(offer.id()));
+        assertEquals(3L, offerRepository.findById(offer.id()).orElseThrow().getRedeemedCount());
+    }
+
+    @Test
+    void shouldClaimBatchUsageWithOneConditionalUpdatePerOffer() {
+        OfferResponse offer = offerService.createOffer(createOfferRequest("GROUP20", 1, null));
+        Offer row = offerRepository.findById(offer.id()).orElseThrow();
+        row.setRedeemedCount(98);
+        offerRepository.save(row);
+
+        List<ApplyOfferBatchResult> results = offerService.applyOffersBatch(List.of(
+                new ApplyOfferRequest("GROUP20", "user-821", "booking-821", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("400")),
+                new ApplyOfferRequest("GROUP20", "user-822", "booking-822", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("400")),
+                new ApplyOfferRequest("GROUP20", "user-823", "booking-823", "movie-8", "theater-8", "CARD", null,
+                        new BigDecimal("400"))
+        ));
+
+        assertEquals(List.of("APPLIED", "APPLIED", "FAILED"),
+                results.stream().map(ApplyOfferBatchResult::status).toList());
+        assertEquals(2, offerRedemptionRepository.countByOfferId(offer.id()));
+        assertEquals(100L, offerRepository.findById(offer.id()).orElseThrow().getRedeemedCount());
+    }
+
+    @Test
+    void shouldFlagExpiredOffersInactiveAndDropThemFromEvaluation() {
+        OfferResponse expiring = offerService.createOffer(createOfferRequest("EXPIRE100", 2, "CARD"));
+        offerService.createOffer(createOfferRequest("LIVE100", 2, "CARD"));
+        Offer offer = offerRepository.findById(expiring.id()).orElseThrow();
+        offer.setValidTill(LocalDateTime.now().minusMinutes(1));
+        offerRepository.save(offer);
+
+        assertEquals(1, offerExpirySweeper.sweep());
+
+        assertFalse(offerRepository.findById(expiring.id()).orElseThrow().getActive());
+        List<EvaluatedOfferResponse> evaluated = offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null));
+        assertEquals(List.of("LIVE100"), evaluated.stream().map(EvaluatedOfferResponse::code).toList());
+        assertEquals(0, offerExpirySweeper.sweep());
+    }
+
     @Test
     void shouldListAppliedOffers() {
         offerService.createOffer(createOfferRequest("LIST100", 3, "CARD"));
@@ -128,16 +442,73 @@ class OfferControllerIntegrationTest {
                 "LIST100", "user-777", "booking-777", "movie-7", "theater-7", "CARD", null, new BigDecimal("500")
         ));
 
-        List<AppliedOfferResponse> appliedOffers = offerService.listAppliedOffers();
+        AppliedOffersPage page = offerService.listAppliedOffers(new AppliedOffersQuery(null, null, null, null, null, null));
 
-        assertFalse(appliedOffers.isEmpty());
-        AppliedOfferResponse first = appliedOffers.getFirst();
+        assertFalse(page.items().isEmpty());
+        assertNull(page.nextCursor());
+        AppliedOfferResponse first = page.items().getFirst();
         assertEquals("LIST100", first.offerCode());
         assertEquals("booking-777", first.bookingId());
         assertEquals("user-777", first.userId());
         assertEquals(new BigDecimal("500.00"), first.orderAmount());
     }
 
+    @Test
+    void shouldPageAppliedOffersWithCursorAndFilters() {
+        offerService.createOffer(createOfferRequest("PAGE100", 10, "CARD"));
+        offerService.createOffer(createOfferRequest("PAGE200", 10, "CARD"));
+        for (int i = 0; i < 5; i++) {
+            offerService.applyOffer(new ApplyOfferRequest(
+                    "PAGE100", "user-page", "booking-page-" + i, "movie-7", "theater-7", "CARD", null, new BigDecimal("500")
+            ));
+        }
+        offerService.applyOffer(new ApplyOfferRequest(
+                "PAGE200", "user-other", "booking-other", "movie-7", "theater-7", "CARD", null, new BigDecimal("500")
+        ));
+
+        List<String> bookingIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            AppliedOffersPage page = offerService.listAppliedOffers(
+                    new AppliedOffersQuery("user-page", "page100", null, null, cursor, 2));
+            page.items().forEach(item -> bookingIds.add(item.bookingId()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("booking-page-4", "booking-page-3", "booking-page-2", "booking-page-1", "booking-page-0"),
+                bookingIds);
+        assertTrue(offerService.listAppliedOffers(new AppliedOffersQuery(null, "UNKNOWN", null, null, null, null))
+                .items().isEmpty());
+        assertTrue(offerService.listAppliedOffers(new AppliedOffersQuery(
+                null, null, LocalDateTime.now().plusMinutes(1), null, null, null)).items().isEmpty());
+        assertThrows(OfferValidationException.class, () -> offerService.listAppliedOffers(
+                new AppliedOffersQuery(null, null, null, null, null, 10_000)));
+    }
+
+    @Test
+    void shouldExportRedemptionHistoryAsNdjson() {
+        offerService.createOffer(createOfferRequest("EXPORT100", 5, "CARD"));
+        for (int i = 0; i < 3; i++) {
+            offerService.applyOffer(new ApplyOfferRequest(
+                    "EXPORT100", "user-export-" + i, "booking-export-" + i, "movie-7", "theater-7", "CARD", null,
+                    new BigDecimal("500")
+            ));
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long rows = appliedOffersExporter.writeNdjson(output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, rows);
+        assertEquals(3, lines.size());
+        assertTrue(lines.getFirst().contains("\"bookingId\":\"booking-export-0\""));
+        assertTrue(lines.getFirst().contains("\"offerCode\":\"EXPORT100\""));
+        assertTrue(lines.getLast().contains("\"finalPayable\":350.00"));
+    }
+
     private CreateOfferRequest createOfferRequest(
             String code,
             int perUserLimit,
@@ -167,7 +538,17 @@ class OfferControllerIntegrationTest {
                 assignedUserId,
                 offerOrigin,
                 sourceApp,
-                sourceOfferCode
+                sourceOfferCode,
+                false
+        );
+    }
+
+    private CreateOfferRequest flashSaleOfferRequest(String code, int totalUsageLimit) {
+        LocalDateTime now = LocalDateTime.now();
+        return new CreateOfferRequest(
+                code, code + " title", "Offer for tests", OfferType.FLAT, new BigDecimal("50"), null,
+                new BigDecimal("100"), now.minusDays(1), now.plusDays(2), totalUsageLimit, 1, true,
+                null, null, null, null, OfferOrigin.INTERNAL, null, null, true
         );
     }
 
@@ -0,0 +1,79 @@
+package com.suvrat.movieofferservice.offer;
+
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferRequest;
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.model.OfferRedemption;
+import com.suvrat.movieofferservice.offer.model.OfferUserUsageId;
+import com.suvrat.movieofferservice.offer.repository.DataMigrationRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageRepository;
+import com.suvrat.movieofferservice.offer.service.OfferDataMigrations;
+import com.suvrat.movieofferservice.offer.service.OfferService;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts against a database that already holds a redemption with id 1, written before redemption ids came from
+ * {@code offer_redemptions_seq}, as in the checked-in development database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:movieoffers-upgrade;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.data-locations=classpath:data.sql,classpath:legacy-redemptions.sql"
+})
+class OfferDataMigrationsIntegrationTest {
+
+    @Autowired
+    private OfferService offerService;
+
+    @Autowired
+    private OfferRedemptionRepository offerRedemptionRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OfferUserUsageRepository offerUserUsageRepository;
+
+    @Autowired
+    private DataMigrationRepository dataMigrationRepository;
+
+    @Autowired
+    private OfferDataMigrations offerDataMigrations;
+
+    @Test
+    void shouldApplySeededOfferWithoutReusingExistingRedemptionIds() {
+        ApplyOfferResponse response = offerService.applyOffer(new ApplyOfferRequest(
+                "WELCOME20", "user-upgrade", "booking-upgrade", "movie-1", "theater-1", "CARD", null,
+                new BigDecimal("500")
+        ));
+
+        assertEquals("WELCOME20", response.code());
+        List<Long> ids = offerRedemptionRepository.findAll().stream().map(OfferRedemption::getId).sorted().toList();
+        assertEquals(2, ids.size());
+        assertEquals(1L, ids.getFirst());
+    }
+
+    @Test
+    void shouldDeriveUsageCountersFromExistingRedemptionsOnlyOnce() {
+        Offer offer = offerRepository.findOfferByCode("WELCOME20").orElseThrow();
+
+        assertEquals(offerRedemptionRepository.countByOfferId(offer.getId()), offer.getRedeemedCount());
+        assertEquals(1L, offerUserUsageRepository.findById(new OfferUserUsageId(offer.getId(), "legacy-user"))
+                .orElseThrow().getUsed());
+        assertTrue(dataMigrationRepository.existsById("usage-counters"));
+
+        offer.setRedeemedCount(offer.getRedeemedCount() + 5);
+        offerRepository.save(offer);
+        offerDataMigrations.migrate();
+
+        assertEquals(offer.getRedeemedCount(), offerRepository.findRedeemedCountById(offer.getId()));
+    }
+}
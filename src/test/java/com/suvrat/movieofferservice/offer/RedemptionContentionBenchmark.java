@@ -0,0 +1,124 @@
+package com.suvrat.movieofferservice.offer;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.catalog.OfferCatalogIndex;
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferRequest;
+import com.suvrat.movieofferservice.offer.dto.CreateOfferRequest;
+import com.suvrat.movieofferservice.offer.dto.OfferResponse;
+import com.suvrat.movieofferservice.offer.model.OfferOrigin;
+import com.suvrat.movieofferservice.offer.model.OfferType;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import com.suvrat.movieofferservice.offer.service.OfferService;
+import com.suvrat.movieofferservice.offer.service.RedemptionStrategy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=WARN")
+class RedemptionContentionBenchmark {
+
+    private static final int THREADS = 16;
+    private static final int APPLIES_PER_THREAD = 50;
+    private static final int USAGE_LIMIT = THREADS * APPLIES_PER_THREAD / 2;
+
+    @Autowired
+    private OfferService offerService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OfferRedemptionRepository offerRedemptionRepository;
+
+    @Autowired
+    private OfferCatalogIndex offerCatalogIndex;
+
+    @Autowired
+    private OfferProperties offerProperties;
+
+    private RedemptionStrategy configuredStrategy;
+
+    @BeforeEach
+    void setUp() {
+        configuredStrategy = offerProperties.getRedemption().getStrategy();
+        offerRedemptionRepository.deleteAll();
+        offerRepository.deleteAll();
+        offerCatalogIndex.refresh();
+    }
+
+    @AfterEach
+    void restoreStrategy() {
+        offerProperties.getRedemption().setStrategy(configuredStrategy);
+    }
+
+    @ParameterizedTest
+    @EnumSource(RedemptionStrategy.class)
+    void hotOfferContention(RedemptionStrategy strategy) throws Exception {
+        offerProperties.getRedemption().setStrategy(strategy);
+        String code = "HOT_" + strategy.name().substring(0, 4);
+        OfferResponse offer = offerService.createOffer(hotOfferRequest(code));
+
+        List<Callable<Long>> applies = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 0; i < APPLIES_PER_THREAD; i++) {
+                String suffix = strategy.ordinal() + "-" + thread + "-" + i;
+                applies.add(() -> {
+                    long started = System.nanoTime();
+                    try {
+                        offerService.applyOffer(new ApplyOfferRequest(
+                                code, "user-" + suffix, "booking-" + suffix, "movie-1", "theater-1", "CARD", null,
+                                new BigDecimal("500")
+                        ));
+                    } catch (RuntimeException rejected) {
+                        // sold out once the limit is reached; latency still counts
+                    }
+                    return System.nanoTime() - started;
+                });
+            }
+        }
+
+        long started = System.nanoTime();
+        long[] latencies = new long[applies.size()];
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<Long>> results = executor.invokeAll(applies);
+            for (int i = 0; i < results.size(); i++) {
+                latencies[i] = results.get(i).get();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        Arrays.sort(latencies);
+
+        System.out.printf("%-18s applies=%d threads=%d throughput=%.0f ops/s p50=%.2f ms p99=%.2f ms%n",
+                strategy, applies.size(), THREADS, applies.size() / (elapsed / 1e9),
+                latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6);
+
+        assertEquals(USAGE_LIMIT, offerRedemptionRepository.countByOfferId(offer.id()));
+        assertEquals(USAGE_LIMIT, offerRepository.findById(offer.id()).orElseThrow().getRedeemedCount());
+    }
+
+    private CreateOfferRequest hotOfferRequest(String code) {
+        LocalDateTime now = LocalDateTime.now();
+        return new CreateOfferRequest(
+                code, code + " title", "Contention benchmark", OfferType.FLAT, new BigDecimal("50"), null,
+                new BigDecimal("100"), now.minusDays(1), now.plusDays(2), USAGE_LIMIT, 1, true,
+                null, null, null, null, OfferOrigin.INTERNAL, null, null, false
+        );
+    }
+}
@@ -0,0 +1,99 @@
+package com.suvrat.movieofferservice.offer;
+
+import com.suvrat.movieofferservice.MovieOfferServiceApplication;
+import com.suvrat.movieofferservice.config.BoundedDataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives {@code POST /evaluate} over HTTP with far more concurrent clients than Tomcat has platform threads, once
+ * per threading mode, and prints throughput and latency percentiles for comparison.
+ */
+@Tag("benchmark")
+class ThreadingModeLoadBenchmark {
+
+    private static final int CLIENTS = 256;
+    private static final int REQUESTS_PER_CLIENT = 40;
+    private static final int PLATFORM_THREADS = 32;
+
+    @ParameterizedTest(name = "virtual threads = {0}")
+    @ValueSource(booleans = {false, true})
+    void evaluateUnderLoad(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MovieOfferServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + PLATFORM_THREADS,
+                        "offers.result-cache.enabled=false",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .run()) {
+            assertEquals(virtualThreads, context.getBean(DataSource.class) instanceof BoundedDataSource);
+            URI evaluate = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/offers/evaluate");
+
+            try (HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build()) {
+                send(client, evaluate, "warmup");
+
+                List<Future<long[]>> clients = new ArrayList<>(CLIENTS);
+                long started = System.nanoTime();
+                try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                    for (int clientId = 0; clientId < CLIENTS; clientId++) {
+                        String userId = "user-" + clientId;
+                        clients.add(executor.submit(() -> {
+                            long[] latencies = new long[REQUESTS_PER_CLIENT];
+                            for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                                long sent = System.nanoTime();
+                                assertEquals(200, send(client, evaluate, userId));
+                                latencies[i] = System.nanoTime() - sent;
+                            }
+                            return latencies;
+                        }));
+                    }
+                }
+                long elapsed = System.nanoTime() - started;
+
+                long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+                for (int clientId = 0; clientId < CLIENTS; clientId++) {
+                    System.arraycopy(clients.get(clientId).get(), 0, latencies, clientId * REQUESTS_PER_CLIENT,
+                            REQUESTS_PER_CLIENT);
+                }
+                Arrays.sort(latencies);
+
+                System.out.printf("%-8s requests=%d clients=%d throughput=%.0f req/s p50=%.2f ms p99=%.2f ms%n",
+                        virtualThreads ? "VIRTUAL" : "PLATFORM", latencies.length, CLIENTS,
+                        latencies.length / (elapsed / 1e9), latencies[latencies.length / 2] / 1e6,
+                        latencies[(int) (latencies.length * 0.99)] / 1e6);
+            }
+        }
+    }
+
+    private int send(HttpClient client, URI evaluate, String userId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(evaluate)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"userId":"%s","movieId":"movie-1","theaterId":"theater-1","paymentPartner":"CARD",
+                         "orderAmount":500}
+                        """.formatted(userId)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
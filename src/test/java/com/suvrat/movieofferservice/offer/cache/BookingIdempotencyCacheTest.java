@@ -0,0 +1,71 @@
+package com.suvrat.movieofferservice.offer.cache;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
+import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIdempotencyCacheTest {
+
+    @Mock
+    private OfferRedemptionRepository offerRedemptionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingIdempotencyCache bookingIdempotencyCache;
+
+    @BeforeEach
+    void setUp() {
+        bookingIdempotencyCache = new BookingIdempotencyCache(
+                offerRedemptionRepository, new TransactionTemplate(transactionManager), new OfferProperties());
+    }
+
+    @Test
+    void mightExist_shouldReportEveryBookingUntilFilterIsBuilt() {
+        assertTrue(bookingIdempotencyCache.mightExist("booking-1"));
+    }
+
+    @Test
+    void rebuild_shouldLoadExistingBookingsAndRejectNewOnes() {
+        when(offerRedemptionRepository.count()).thenReturn(2L);
+        when(offerRedemptionRepository.streamAllBookingIds()).thenReturn(Stream.of("booking-1", "booking-2"));
+
+        bookingIdempotencyCache.rebuild();
+
+        assertTrue(bookingIdempotencyCache.mightExist("booking-1"));
+        assertTrue(bookingIdempotencyCache.mightExist("booking-2"));
+        assertFalse(bookingIdempotencyCache.mightExist("booking-3"));
+    }
+
+    @Test
+    void record_shouldMarkBookingAndKeepResponse() {
+        when(offerRedemptionRepository.streamAllBookingIds()).thenReturn(Stream.empty());
+        bookingIdempotencyCache.rebuild();
+        ApplyOfferResponse response = new ApplyOfferResponse("TEST10", "booking-9", new BigDecimal("500.00"),
+                new BigDecimal("50.00"), new BigDecimal("450.00"));
+        AppliedBooking appliedBooking = new AppliedBooking("TEST10", "user-1", new BigDecimal("500"), response);
+
+        bookingIdempotencyCache.record(appliedBooking);
+
+        assertTrue(bookingIdempotencyCache.mightExist("booking-9"));
+        assertEquals(Optional.of(appliedBooking), bookingIdempotencyCache.recent("booking-9"));
+        assertTrue(appliedBooking.matches("TEST10", "user-1", new BigDecimal("500.00")));
+        assertFalse(appliedBooking.matches("TEST10", "user-2", new BigDecimal("500")));
+    }
+}
@@ -0,0 +1,76 @@
+package com.suvrat.movieofferservice.offer.cache;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvaluateResultCacheTest {
+
+    private static final BookingDimensions BOOKING = new BookingDimensions(1, 2, 3, 4, 0);
+    private static final List<EvaluatedOfferResponse> RESULT = List.of();
+
+    private final EvaluateResultCache evaluateResultCache = new EvaluateResultCache(new OfferProperties());
+
+    @Test
+    void get_shouldMatchKeysThatDifferOnlyInWhitespaceAndScale() {
+        evaluateResultCache.put(key("user-1", "500", 0), RESULT, evaluateResultCache.stamp());
+
+        assertEquals(Optional.of(RESULT), evaluateResultCache.get(key(" user-1 ", "500.00", 0)));
+        assertTrue(evaluateResultCache.get(key("user-1", "500", 1)).isEmpty());
+    }
+
+    @Test
+    void put_shouldDropResultComputedAcrossAnEviction() {
+        long stamp = evaluateResultCache.stamp();
+        evaluateResultCache.evictUser("user-2");
+
+        evaluateResultCache.put(key("user-1", "500", 0), RESULT, stamp);
+
+        assertTrue(evaluateResultCache.get(key("user-1", "500", 0)).isEmpty());
+    }
+
+    @Test
+    void evictUser_shouldKeepOtherUsersEntries() {
+        evaluateResultCache.put(key("user-1", "500", 0), RESULT, evaluateResultCache.stamp());
+        evaluateResultCache.put(key("user-2", "500", 0), RESULT, evaluateResultCache.stamp());
+
+        evaluateResultCache.evictUser(" user-1 ");
+
+        assertTrue(evaluateResultCache.get(key("user-1", "500", 0)).isEmpty());
+        assertEquals(Optional.of(RESULT), evaluateResultCache.get(key("user-2", "500", 0)));
+    }
+
+    @Test
+    void put_shouldCacheAgainAfterUsersEviction() {
+        evaluateResultCache.put(key("user-1", "500", 0), RESULT, evaluateResultCache.stamp());
+        evaluateResultCache.evictUser("user-1");
+
+        List<EvaluatedOfferResponse> recomputed = List.of();
+        evaluateResultCache.put(key("user-1", "500", 0), recomputed, evaluateResultCache.stamp());
+
+        assertEquals(Optional.of(recomputed), evaluateResultCache.get(key("user-1", "500", 0)));
+    }
+
+    @Test
+    void get_shouldMissWhenDisabled() {
+        OfferProperties offerProperties = new OfferProperties();
+        offerProperties.getResultCache().setEnabled(false);
+        EvaluateResultCache disabled = new EvaluateResultCache(offerProperties);
+
+        disabled.put(key("user-1", "500", 0), RESULT, disabled.stamp());
+
+        assertTrue(disabled.get(key("user-1", "500", 0)).isEmpty());
+    }
+
+    private EvaluateResultCache.Key key(String userId, String orderAmount, long catalogGeneration) {
+        return EvaluateResultCache.Key.of(userId, BOOKING, new BigDecimal(orderAmount), null, 1L,
+                catalogGeneration);
+    }
+}
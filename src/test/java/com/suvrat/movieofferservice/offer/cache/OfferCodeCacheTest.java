@@ -0,0 +1,95 @@
+package com.suvrat.movieofferservice.offer.cache;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OfferCodeCacheTest {
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    private OfferCodeCache offerCodeCache;
+
+    @BeforeEach
+    void setUp() {
+        offerCodeCache = new OfferCodeCache(offerRepository, new OfferProperties());
+    }
+
+    @Test
+    void resolve_shouldCheckCodesOutsideBloomFilterAndCacheTheMiss() {
+        offerCodeCache.rebuild(List.of(offer(7L, "WELCOME20", "PAYTM_BANK50")));
+        when(offerRepository.findIdsByCode("NOPE")).thenReturn(List.of());
+
+        assertEquals(Optional.empty(), offerCodeCache.resolve("NOPE"));
+        assertEquals(Optional.empty(), offerCodeCache.resolve("NOPE"));
+
+        verify(offerRepository, times(1)).findIdsByCode("NOPE");
+    }
+
+    @Test
+    void resolve_shouldFindOffersAddedByAnotherInstanceBeforeTheNextRebuild() {
+        offerCodeCache.rebuild(List.of(offer(7L, "WELCOME20", null)));
+        when(offerRepository.findIdsByCode("ELSEWHERE10")).thenReturn(List.of(12L));
+
+        assertEquals(Optional.of(12L), offerCodeCache.resolve("ELSEWHERE10"));
+        assertEquals(Optional.of(12L), offerCodeCache.resolve("ELSEWHERE10"));
+
+        verify(offerRepository, times(1)).findIdsByCode("ELSEWHERE10");
+    }
+
+    @Test
+    void resolve_shouldRateLimitLookupsForCodesOutsideBloomFilter() {
+        OfferProperties properties = new OfferProperties();
+        properties.getCodeCache().setMissLookupsPerSecond(0);
+        offerCodeCache = new OfferCodeCache(offerRepository, properties);
+        offerCodeCache.rebuild(List.of(offer(7L, "WELCOME20", null)));
+
+        assertEquals(Optional.empty(), offerCodeCache.resolve("NOPE"));
+
+        verify(offerRepository, never()).findIdsByCode(anyString());
+    }
+
+    @Test
+    void resolve_shouldCacheKnownAndUnknownCodes() {
+        when(offerRepository.findIdsByCode("WELCOME20")).thenReturn(List.of(7L));
+        when(offerRepository.findIdsByCode("TYPO20")).thenReturn(List.of());
+
+        assertEquals(Optional.of(7L), offerCodeCache.resolve("WELCOME20"));
+        assertEquals(Optional.of(7L), offerCodeCache.resolve("WELCOME20"));
+        assertEquals(Optional.empty(), offerCodeCache.resolve("TYPO20"));
+        assertEquals(Optional.empty(), offerCodeCache.resolve("TYPO20"));
+
+        verify(offerRepository, times(1)).findIdsByCode("WELCOME20");
+        verify(offerRepository, times(1)).findIdsByCode("TYPO20");
+    }
+
+    @Test
+    void register_shouldReplaceNegativeEntry() {
+        when(offerRepository.findIdsByCode("NEW10")).thenReturn(List.of());
+        assertEquals(Optional.empty(), offerCodeCache.resolve("NEW10"));
+
+        offerCodeCache.register(Offer.builder().id(11L).code("NEW10").build());
+
+        assertEquals(Optional.of(11L), offerCodeCache.resolve("NEW10"));
+    }
+
+    private Offer offer(Long id, String code, String sourceOfferCode) {
+        return Offer.builder().id(id).code(code).sourceOfferCode(sourceOfferCode).build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.matching.EligibilityStage;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.model.OfferOrigin;
+import com.suvrat.movieofferservice.offer.model.OfferType;
+import com.suvrat.movieofferservice.offer.pricing.OrderAmount;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OfferColumnsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+    private static final String[] PARTNERS = {null, "CARD", "UPI"};
+
+    @Test
+    void scan_shouldMatchBucketIndexForEveryScannerAndPartitioning() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<Offer> offers = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            offers.add(offer(id, random));
+        }
+        OfferIndex index = new OfferIndex(offers, NOW);
+        ColumnScanner preferred = ColumnScanner.create();
+        ColumnScanner scalar = new ScalarColumnScanner();
+
+        for (int i = 0; i < 50; i++) {
+            BookingDimensions booking = BookingDimensions.of(index.dictionary(), "movie-" + random.nextInt(5),
+                    "theater-" + random.nextInt(4), PARTNERS[random.nextInt(PARTNERS.length)], "user-" + random.nextInt(3),
+                    null);
+            OrderAmount orderAmount = OrderAmount.of(BigDecimal.valueOf(random.nextInt(100_000), 2));
+            List<Offer> expected = index.candidates(booking, run()).stream()
+                    .filter(offer -> offer.getPricing().acceptsOrder(orderAmount))
+                    .toList();
+
+            assertEquals(expected, index.scan(booking, orderAmount.floorCents(), scalar, Integer.MAX_VALUE, run()));
+            assertEquals(expected, index.scan(booking, orderAmount.floorCents(), preferred, Integer.MAX_VALUE, run()));
+            assertEquals(expected, index.scan(booking, orderAmount.floorCents(), preferred, 0, run()));
+        }
+    }
+
+    @Test
+    void scan_shouldRecordTheSamePruningAsTheBuckets() {
+        SplittableRandom random = new SplittableRandom(13);
+        List<Offer> offers = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            offers.add(offer(id, random));
+        }
+        OfferIndex index = new OfferIndex(offers, NOW);
+        BookingDimensions booking = BookingDimensions.of(index.dictionary(), "movie-1", "theater-2", "CARD", "user-1",
+                null);
+        EligibilityChain buckets = new EligibilityChain(new OfferProperties());
+        EligibilityChain scalar = new EligibilityChain(new OfferProperties());
+        EligibilityChain parallel = new EligibilityChain(new OfferProperties());
+
+        finish(buckets, run -> index.candidates(booking, run));
+        finish(scalar, run -> index.scan(booking, 5_000, new ScalarColumnScanner(), Integer.MAX_VALUE, run));
+        finish(parallel, run -> index.scan(booking, 5_000, ColumnScanner.create(), 0, run));
+
+        for (EligibilityStage stage : OfferColumns.STAGES) {
+            if (stage != EligibilityStage.MIN_ORDER) {
+                assertEquals(buckets.evaluated(stage), scalar.evaluated(stage), stage.name());
+                assertEquals(buckets.rejected(stage), scalar.rejected(stage), stage.name());
+            }
+            assertEquals(scalar.evaluated(stage), parallel.evaluated(stage), stage.name());
+            assertEquals(scalar.rejected(stage), parallel.rejected(stage), stage.name());
+        }
+        assertEquals(5_000, scalar.evaluated(EligibilityStage.MOVIE));
+    }
+
+    @Test
+    void scan_shouldLeaveOutOffersThatAreNotLive() {
+        SplittableRandom random = new SplittableRandom(11);
+        Offer expired = offer(1L, random);
+        expired.setValidTill(NOW.minusDays(1));
+        expired.setValidFrom(NOW.minusDays(2));
+        OfferIndex index = new OfferIndex(List.of(expired), NOW);
+
+        BookingDimensions booking = BookingDimensions.of(index.dictionary(), null, null, null, "user-1", null);
+
+        assertEquals(List.of(), index.scan(booking, Long.MAX_VALUE, ColumnScanner.create(), 0, run()));
+    }
+
+    private void finish(EligibilityChain chain, Consumer<EligibilityChain.Run> scan) {
+        EligibilityChain.Run run = chain.start();
+        scan.accept(run);
+        run.finish();
+    }
+
+    private EligibilityChain.Run run() {
+        return new EligibilityChain(new OfferProperties()).start();
+    }
+
+    private Offer offer(long id, SplittableRandom random) {
+        return Offer.builder()
+                .id(id)
+                .code("COL" + id)
+                .offerType(OfferType.FLAT)
+                .discountValue(BigDecimal.valueOf(1 + random.nextInt(500)))
+                .minOrderAmount(BigDecimal.valueOf(random.nextInt(1_000)))
+                .validFrom(NOW.minusDays(1))
+                .validTill(NOW.plusDays(1))
+                .active(true)
+                .offerOrigin(OfferOrigin.INTERNAL)
+                .applicableMovieId(random.nextBoolean() ? null : "movie-" + random.nextInt(5))
+                .applicableTheaterId(random.nextInt(3) == 0 ? "theater-" + random.nextInt(4) : null)
+                .paymentPartner(PARTNERS[random.nextInt(PARTNERS.length)])
+                .assignedUserId(random.nextInt(10) == 0 ? "user-" + random.nextInt(3) : null)
+                .build();
+    }
+}
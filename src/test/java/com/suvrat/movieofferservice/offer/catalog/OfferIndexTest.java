@@ -0,0 +1,108 @@
+package com.suvrat.movieofferservice.offer.catalog;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.matching.BookingDimensions;
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.matching.EligibilityStage;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.model.OfferOrigin;
+import com.suvrat.movieofferservice.offer.model.OfferType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OfferIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Test
+    void advance_shouldMoveOffersInAndOutOfLiveSetAtValidityBoundaries() {
+        Offer live = offer(1L, NOW.minusDays(1), NOW.plusHours(1));
+        Offer upcoming = offer(2L, NOW.plusMinutes(30), NOW.plusHours(2));
+        Offer expired = offer(3L, NOW.minusDays(2), NOW.minusDays(1));
+        OfferIndex index = new OfferIndex(List.of(live, upcoming, expired), NOW);
+
+        assertEquals(List.of(live), candidates(index));
+        assertEquals(NOW.plusMinutes(30), index.advance(NOW));
+
+        assertEquals(NOW.plusHours(1).plusNanos(1), index.advance(NOW.plusMinutes(30)));
+        assertEquals(List.of(live, upcoming), candidates(index));
+
+        assertEquals(NOW.plusHours(2).plusNanos(1), index.advance(NOW.plusHours(1)));
+        assertEquals(List.of(live, upcoming), candidates(index));
+
+        assertEquals(NOW.plusHours(2).plusNanos(1), index.advance(NOW.plusHours(1).plusNanos(1)));
+        assertEquals(List.of(upcoming), candidates(index));
+
+        assertNull(index.advance(NOW.plusDays(1)));
+        assertEquals(0, index.liveCount());
+    }
+
+    @Test
+    void candidates_shouldMatchRuleValuesIgnoringCaseAndWhitespace() {
+        Offer anyMovie = offer(1L, NOW.minusDays(1), NOW.plusDays(1));
+        Offer movieOne = offer(2L, NOW.minusDays(1), NOW.plusDays(1));
+        movieOne.setApplicableMovieId(" Movie-1 ");
+        Offer movieTwo = offer(3L, NOW.minusDays(1), NOW.plusDays(1));
+        movieTwo.setApplicableMovieId("movie-2");
+        OfferIndex index = new OfferIndex(List.of(anyMovie, movieOne, movieTwo), NOW);
+
+        assertEquals(List.of(anyMovie, movieOne), candidates(index));
+        assertEquals(List.of(anyMovie), index.candidates(
+                BookingDimensions.of(index.dictionary(), "movie-unknown", "theater-1", "CARD", "user-1", null), run()));
+        assertEquals(List.of(anyMovie), index.candidates(
+                BookingDimensions.of(index.dictionary(), null, null, null, "user-1", null), run()));
+    }
+
+    @Test
+    void candidates_shouldRecordWhatEachDimensionPruned() {
+        Offer anyMovie = offer(1L, NOW.minusDays(1), NOW.plusDays(1));
+        Offer movieTwo = offer(2L, NOW.minusDays(1), NOW.plusDays(1));
+        movieTwo.setApplicableMovieId("movie-2");
+        Offer otherPartner = offer(3L, NOW.minusDays(1), NOW.plusDays(1));
+        otherPartner.setPaymentPartner("UPI");
+        Offer expired = offer(4L, NOW.minusDays(2), NOW.minusDays(1));
+        expired.setApplicableMovieId("movie-2");
+        OfferIndex index = new OfferIndex(List.of(anyMovie, movieTwo, otherPartner, expired), NOW);
+        EligibilityChain chain = new EligibilityChain(new OfferProperties());
+
+        EligibilityChain.Run run = chain.start();
+        assertEquals(List.of(anyMovie), index.candidates(
+                BookingDimensions.of(index.dictionary(), "movie-1", "theater-1", "CARD", "user-1", null), run));
+        run.finish();
+
+        assertEquals(3, chain.evaluated(EligibilityStage.MOVIE));
+        assertEquals(1, chain.rejected(EligibilityStage.MOVIE));
+        assertEquals(2, chain.evaluated(EligibilityStage.PAYMENT_PARTNER));
+        assertEquals(1, chain.rejected(EligibilityStage.PAYMENT_PARTNER));
+        assertEquals(1, chain.evaluated(EligibilityStage.SOURCE_APP));
+        assertEquals(0, chain.rejected(EligibilityStage.SOURCE_APP));
+    }
+
+    private List<Offer> candidates(OfferIndex index) {
+        return index.candidates(BookingDimensions.of(index.dictionary(), "movie-1", "theater-1", "CARD", "user-1", null),
+                run());
+    }
+
+    private EligibilityChain.Run run() {
+        return new EligibilityChain(new OfferProperties()).start();
+    }
+
+    private Offer offer(Long id, LocalDateTime validFrom, LocalDateTime validTill) {
+        return Offer.builder()
+                .id(id)
+                .code("OFFER" + id)
+                .offerType(OfferType.FLAT)
+                .discountValue(new BigDecimal("50"))
+                .minOrderAmount(BigDecimal.ZERO)
+                .validFrom(validFrom)
+                .validTill(validTill)
+                .active(true)
+                .offerOrigin(OfferOrigin.INTERNAL)
+                .build();
+    }
+}
@@ -1,37 +1,53 @@
 package com.suvrat.movieofferservice.offer.controller;
 
+import com.suvrat.movieofferservice.offer.dto.ApplyOfferBatchResult;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferRequest;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
 import com.suvrat.movieofferservice.offer.dto.AppliedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersPage;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersQuery;
 import com.suvrat.movieofferservice.offer.dto.CreateOfferRequest;
+import com.suvrat.movieofferservice.offer.dto.EligibilityStageStats;
 import com.suvrat.movieofferservice.offer.dto.EvaluateOffersRequest;
 import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.OfferListing;
 import com.suvrat.movieofferservice.offer.dto.OfferResponse;
 import com.suvrat.movieofferservice.offer.exception.ApiExceptionHandler;
 import com.suvrat.movieofferservice.offer.exception.OfferValidationException;
 import com.suvrat.movieofferservice.offer.model.OfferOrigin;
 import com.suvrat.movieofferservice.offer.model.OfferType;
+import com.suvrat.movieofferservice.offer.service.AppliedOffersExporter;
+import com.suvrat.movieofferservice.offer.service.OfferListingPayloads;
 import com.suvrat.movieofferservice.offer.service.OfferService;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(OfferController.class)
-@Import(ApiExceptionHandler.class)
+@Import({ApiExceptionHandler.class, OfferListingPayloads.class})
 class OfferControllerWebTest {
 
     @Autowired
@@ -40,6 +56,9 @@ class OfferControllerWebTest {
     @MockitoBean
     private OfferService offerService;
 
+    @MockitoBean
+    private AppliedOffersExporter appliedOffersExporter;
+
     @Test
     void createOffer_shouldReturnCreated() throws Exception {
         LocalDateTime now = LocalDateTime.now();
@@ -63,7 +82,8 @@ class OfferControllerWebTest {
                 null,
                 OfferOrigin.INTERNAL,
                 null,
-                null
+                null,
+                false
         );
         when(offerService.createOffer(any(CreateOfferRequest.class))).thenReturn(response);
 
@@ -94,37 +114,36 @@ class OfferControllerWebTest {
 
     @Test
     void listOffers_shouldReturnOk() throws Exception {
-        when(offerService.listOffers()).thenReturn(List.of(
-                new OfferResponse(
-                        1L,
-                        "WELCOME20",
-                        "Welcome",
-                        "desc",
-                        OfferType.PERCENTAGE,
-                        new BigDecimal("20.00"),
-                        new BigDecimal("200.00"),
-                        new BigDecimal("100.00"),
-                        LocalDateTime.now().minusDays(1),
-                        LocalDateTime.now().plusDays(1),
-                        100,
-                        1,
-                        true,
-                        null,
-                        null,
-                        null,
-                        null,
-                        OfferOrigin.INTERNAL,
-                        null,
-                        null
-                )
-        ));
+        when(offerService.listOffers()).thenReturn(new OfferListing(7, List.of(listedOffer("WELCOME20"))));
 
         mockMvc.perform(get("/api/v1/offers"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Catalog-Version", "7"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
                 .andExpect(jsonPath("$.size()").value(1))
                 .andExpect(jsonPath("$[0].code").value("WELCOME20"));
     }
 
+    @Test
+    void listOffers_shouldReturnNotModifiedUntilCatalogChanges() throws Exception {
+        when(offerService.listOffers()).thenReturn(new OfferListing(3, List.of(listedOffer("WELCOME20"))));
+        String etag = mockMvc.perform(get("/api/v1/offers"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/offers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        when(offerService.listOffers()).thenReturn(new OfferListing(4, List.of(
+                listedOffer("WELCOME20"), listedOffer("FLAT100"))));
+        mockMvc.perform(get("/api/v1/offers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.size()").value(2));
+    }
+
     @Test
     void evaluateOffers_shouldReturnOk() throws Exception {
         when(offerService.evaluateOffers(any(EvaluateOffersRequest.class))).thenReturn(List.of(
@@ -156,6 +175,49 @@ class OfferControllerWebTest {
                 .andExpect(jsonPath("$[0].code").value("WELCOME20"));
     }
 
+    @Test
+    void evaluateOffersBatch_shouldReturnResultsPerContext() throws Exception {
+        when(offerService.evaluateOffersBatch(any())).thenReturn(List.of(
+                List.of(new EvaluatedOfferResponse(
+                        "WELCOME20",
+                        "Welcome",
+                        new BigDecimal("100.00"),
+                        new BigDecimal("400.00"),
+                        "ELIGIBLE"
+                )),
+                List.of()
+        ));
+
+        String payload = """
+                [
+                  {"userId":"user-1","movieId":"movie-1","theaterId":"theater-1","paymentPartner":"CARD","orderAmount":500},
+                  {"userId":"user-1","movieId":"movie-1","theaterId":"theater-1","paymentPartner":"CARD","orderAmount":50}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/v1/offers/evaluate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()").value(2))
+                .andExpect(jsonPath("$[0][0].code").value("WELCOME20"))
+                .andExpect(jsonPath("$[1].size()").value(0));
+    }
+
+    @Test
+    void eligibilityStages_shouldReturnStageCounters() throws Exception {
+        when(offerService.eligibilityStages()).thenReturn(List.of(
+                new EligibilityStageStats("MIN_ORDER", 0, 1_000, 400),
+                new EligibilityStageStats("USER_USAGE", 8, 300, 20)
+        ));
+
+        mockMvc.perform(get("/api/v1/offers/evaluate/stages"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].stage").value("MIN_ORDER"))
+                .andExpect(jsonPath("$[0].rejected").value(400))
+                .andExpect(jsonPath("$[1].position").value(8));
+    }
+
     @Test
     void applyOffer_shouldReturnBadRequestForValidationError() throws Exception {
         when(offerService.applyOffer(any(ApplyOfferRequest.class)))
@@ -183,23 +245,61 @@ class OfferControllerWebTest {
     }
 
     @Test
-    void listAppliedOffers_shouldReturnOk() throws Exception {
-        when(offerService.listAppliedOffers()).thenReturn(List.of(
-                new AppliedOfferResponse(
+    void applyOffersBatch_shouldReturnPerItemResults() throws Exception {
+        when(offerService.applyOffersBatch(any())).thenReturn(List.of(
+                ApplyOfferBatchResult.applied(new ApplyOfferResponse(
                         "WELCOME20",
                         "booking-1",
-                        "user-1",
                         new BigDecimal("500.00"),
                         new BigDecimal("100.00"),
-                        new BigDecimal("400.00"),
-                        LocalDateTime.now()
-                )
+                        new BigDecimal("400.00")
+                )),
+                ApplyOfferBatchResult.failed("booking-2", "Offer already applied for this booking")
         ));
 
-        mockMvc.perform(get("/api/v1/offers/applied"))
+        String payload = """
+                [
+                  {"code":"WELCOME20","userId":"user-1","bookingId":"booking-1","orderAmount":500},
+                  {"code":"WELCOME20","userId":"user-2","bookingId":"booking-2","orderAmount":500}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/v1/offers/apply/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.size()").value(1))
-                .andExpect(jsonPath("$[0].offerCode").value("WELCOME20"));
+                .andExpect(jsonPath("$[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$[0].result.finalPayable").value(400.00))
+                .andExpect(jsonPath("$[1].status").value("FAILED"))
+                .andExpect(jsonPath("$[1].message").value("Offer already applied for this booking"));
+    }
+
+    @Test
+    void listAppliedOffers_shouldReturnOk() throws Exception {
+        when(offerService.listAppliedOffers(new AppliedOffersQuery(
+                "user-1", "WELCOME20", LocalDateTime.parse("2026-02-14T10:00:00"), null, "next", 20)))
+                .thenReturn(new AppliedOffersPage(List.of(
+                        new AppliedOfferResponse(
+                                "WELCOME20",
+                                "booking-1",
+                                "user-1",
+                                new BigDecimal("500.00"),
+                                new BigDecimal("100.00"),
+                                new BigDecimal("400.00"),
+                                LocalDateTime.now()
+                        )
+                ), "cursor-2"));
+
+        mockMvc.perform(get("/api/v1/offers/applied")
+                        .param("userId", "user-1")
+                        .param("offerCode", "WELCOME20")
+                        .param("from", "2026-02-14T10:00:00")
+                        .param("cursor", "next")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()").value(1))
+                .andExpect(jsonPath("$.items[0].offerCode").value("WELCOME20"))
+                .andExpect(jsonPath("$.nextCursor").value("cursor-2"));
     }
 
     @Test
@@ -234,4 +334,49 @@ class OfferControllerWebTest {
                 .andExpect(jsonPath("$.code").value("WELCOME20"))
                 .andExpect(jsonPath("$.finalPayable").value(400.00));
     }
+
+    @Test
+    void exportAppliedOffers_shouldStreamNdjson() throws Exception {
+        when(appliedOffersExporter.writeNdjson(any(OutputStream.class))).thenAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"bookingId\":\"booking-1\"}\n{\"bookingId\":\"booking-2\"}\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/offers/applied/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"bookingId\":\"booking-1\"}\n{\"bookingId\":\"booking-2\"}\n"));
+    }
+
+    private static OfferResponse listedOffer(String code) {
+        return new OfferResponse(
+                1L,
+                code,
+                "Welcome",
+                "desc",
+                OfferType.PERCENTAGE,
+                new BigDecimal("20.00"),
+                new BigDecimal("200.00"),
+                new BigDecimal("100.00"),
+                LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1),
+                100,
+                1,
+                true,
+                null,
+                null,
+                null,
+                null,
+                OfferOrigin.INTERNAL,
+                null,
+                null,
+                false
+        );
+    }
 }
@@ -0,0 +1,80 @@
+package com.suvrat.movieofferservice.offer.matching;
+
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.dto.EligibilityStageStats;
+import com.suvrat.movieofferservice.offer.model.Offer;
+import com.suvrat.movieofferservice.offer.model.OfferOrigin;
+import com.suvrat.movieofferservice.offer.model.OfferType;
+import com.suvrat.movieofferservice.offer.pricing.OrderAmount;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EligibilityChainTest {
+
+    private static final OrderAmount SMALL_ORDER = OrderAmount.of(new BigDecimal("50"));
+
+    @Test
+    void finish_shouldMoveMostSelectiveStageFirstAndKeepUsageStagesLast() {
+        OfferProperties offerProperties = new OfferProperties();
+        offerProperties.getEvaluate().setStageReorderInterval(20);
+        EligibilityChain chain = new EligibilityChain(offerProperties);
+        Offer offer = offer("500");
+        BookingDimensions booking = booking(offer);
+
+        EligibilityChain.Run run = chain.start();
+        for (int i = 0; i < 20; i++) {
+            assertFalse(run.matches(offer, booking, SMALL_ORDER));
+        }
+        run.finish();
+
+        List<EligibilityStage> order = chain.order();
+        assertEquals(EligibilityStage.MIN_ORDER, order.getFirst());
+        assertEquals(List.of(EligibilityStage.TOTAL_USAGE, EligibilityStage.USER_USAGE),
+                order.subList(order.size() - 2, order.size()));
+    }
+
+    @Test
+    void stats_shouldCountEvaluatedAndRejectedPerStage() {
+        EligibilityChain chain = new EligibilityChain(new OfferProperties());
+        Offer offer = offer("100");
+        BookingDimensions booking = booking(offer);
+
+        EligibilityChain.Run run = chain.start();
+        assertTrue(run.matches(offer, booking, OrderAmount.of(new BigDecimal("500"))));
+        assertFalse(run.passesUsage(offer, 0, 1));
+        run.finish();
+
+        EligibilityStageStats userUsage = chain.stats().getLast();
+        assertEquals("USER_USAGE", userUsage.stage());
+        assertEquals(1, userUsage.evaluated());
+        assertEquals(1, userUsage.rejected());
+        EligibilityStageStats active = chain.stats().getFirst();
+        assertEquals("ACTIVE", active.stage());
+        assertEquals(1, active.evaluated());
+        assertEquals(0, active.rejected());
+    }
+
+    private BookingDimensions booking(Offer offer) {
+        DimensionDictionary dictionary = new DimensionDictionary();
+        offer.encodeDimensions(dictionary);
+        return BookingDimensions.of(dictionary, "movie-1", "theater-1", "CARD", "user-1", null);
+    }
+
+    private Offer offer(String minOrderAmount) {
+        return Offer.builder()
+                .id(1L)
+                .code("STAGE1")
+                .offerType(OfferType.FLAT)
+                .discountValue(new BigDecimal("50"))
+                .minOrderAmount(new BigDecimal(minOrderAmount))
+                .perUserUsageLimit(1)
+                .active(true)
+                .offerOrigin(OfferOrigin.INTERNAL)
+                .build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.suvrat.movieofferservice.offer.pricing;
+
+import com.suvrat.movieofferservice.offer.model.OfferType;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfferPricingTest {
+
+    @Test
+    void discountUnits_shouldRoundPercentageHalfUpAndApplyCaps() {
+        OfferPricing pricing = OfferPricing.of(OfferType.PERCENTAGE, new BigDecimal("12.5"), new BigDecimal("40"),
+                new BigDecimal("100"));
+        OrderAmount order = OrderAmount.of(new BigDecimal("123.40"));
+
+        assertEquals(1543, order.toCents(pricing.discountUnits(order)));
+        assertEquals(10797, order.finalPayableCents(pricing.discountUnits(order)));
+
+        OrderAmount largeOrder = OrderAmount.of(new BigDecimal("1000"));
+        assertEquals(4000, largeOrder.toCents(pricing.discountUnits(largeOrder)));
+    }
+
+    @Test
+    void discountUnits_shouldNotExceedOrderAmount() {
+        OfferPricing pricing = OfferPricing.of(OfferType.FLAT, new BigDecimal("150"), null, BigDecimal.ZERO);
+        OrderAmount order = OrderAmount.of(new BigDecimal("99.995"));
+
+        assertEquals(10000, order.toCents(pricing.discountUnits(order)));
+        assertEquals(0, order.finalPayableCents(pricing.discountUnits(order)));
+    }
+
+    @Test
+    void acceptsOrder_shouldCompareAgainstMinimumOrderExactly() {
+        OfferPricing pricing = OfferPricing.of(OfferType.FLAT, BigDecimal.TEN, null, new BigDecimal("100.00"));
+
+        assertTrue(pricing.acceptsOrder(OrderAmount.of(new BigDecimal("100"))));
+        assertFalse(pricing.acceptsOrder(OrderAmount.of(new BigDecimal("99.999"))));
+    }
+
+    @Test
+    void of_shouldRejectAmountsThatCannotBePricedExactly() {
+        assertThrows(ArithmeticException.class, () -> OrderAmount.of(new BigDecimal("1.000000001")));
+        assertThrows(ArithmeticException.class, () -> OrderAmount.of(new BigDecimal("1e20")));
+    }
+
+    @Test
+    void discountUnits_shouldMatchBigDecimalCalculation() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            OfferType offerType = random.nextBoolean() ? OfferType.PERCENTAGE : OfferType.FLAT;
+            BigDecimal discountValue = offerType == OfferType.PERCENTAGE
+                    ? BigDecimal.valueOf(1 + random.nextInt(10_000), 2)
+                    : BigDecimal.valueOf(1 + random.nextInt(100_000), 2);
+            BigDecimal maxDiscount = random.nextBoolean() ? BigDecimal.valueOf(random.nextInt(50_000), 2) : null;
+            BigDecimal orderAmount = BigDecimal.valueOf(random.nextLong(10_000_000_000L), random.nextInt(5));
+
+            OfferPricing pricing = OfferPricing.of(offerType, discountValue, maxDiscount, BigDecimal.ZERO);
+            OrderAmount order = OrderAmount.of(orderAmount);
+            long discountUnits = pricing.discountUnits(order);
+            BigDecimal expectedDiscount = referenceDiscount(offerType, discountValue, maxDiscount, orderAmount);
+
+            String context = offerType + " " + discountValue + " max " + maxDiscount + " order " + orderAmount;
+            assertEquals(expectedDiscount.compareTo(BigDecimal.ZERO) > 0, discountUnits > 0, context);
+            assertEquals(expectedDiscount.setScale(2, RoundingMode.HALF_UP),
+                    OrderAmount.centsToBigDecimal(order.toCents(discountUnits)), context);
+            assertEquals(orderAmount.subtract(expectedDiscount).max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP),
+                    OrderAmount.centsToBigDecimal(order.finalPayableCents(discountUnits)), context);
+        }
+    }
+
+    private BigDecimal referenceDiscount(OfferType offerType, BigDecimal discountValue, BigDecimal maxDiscount,
+                                         BigDecimal orderAmount) {
+        BigDecimal discount;
+        if (offerType == OfferType.PERCENTAGE) {
+            discount = orderAmount.multiply(discountValue).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+        } else {
+            discount = discountValue;
+        }
+        if (maxDiscount != null && discount.compareTo(maxDiscount) > 0) {
+            discount = maxDiscount;
+        }
+        if (discount.compareTo(orderAmount) > 0) {
+            discount = orderAmount;
+        }
+        return discount;
+    }
+}
@@ -1,32 +1,60 @@
 package com.suvrat.movieofferservice.offer.service;
 
+import com.suvrat.movieofferservice.config.OfferProperties;
+import com.suvrat.movieofferservice.offer.cache.AppliedBooking;
+import com.suvrat.movieofferservice.offer.cache.BookingIdempotencyCache;
+import com.suvrat.movieofferservice.offer.cache.EvaluateResultCache;
+import com.suvrat.movieofferservice.offer.cache.OfferCodeCache;
+import com.suvrat.movieofferservice.offer.catalog.CatalogSnapshot;
+import com.suvrat.movieofferservice.offer.catalog.OfferCatalogIndex;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferRequest;
 import com.suvrat.movieofferservice.offer.dto.ApplyOfferResponse;
-import com.suvrat.movieofferservice.offer.dto.AppliedOfferResponse;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersPage;
+import com.suvrat.movieofferservice.offer.dto.AppliedOffersQuery;
 import com.suvrat.movieofferservice.offer.dto.CreateOfferRequest;
+import com.suvrat.movieofferservice.offer.dto.EvaluateOffersRequest;
+import com.suvrat.movieofferservice.offer.dto.EvaluatedOfferResponse;
 import com.suvrat.movieofferservice.offer.exception.OfferValidationException;
+import com.suvrat.movieofferservice.offer.matching.EligibilityChain;
+import com.suvrat.movieofferservice.offer.metrics.OfferEvaluationEvent;
+import com.suvrat.movieofferservice.offer.metrics.OfferMetrics;
 import com.suvrat.movieofferservice.offer.model.Offer;
 import com.suvrat.movieofferservice.offer.model.OfferOrigin;
 import com.suvrat.movieofferservice.offer.model.OfferRedemption;
 import com.suvrat.movieofferservice.offer.model.OfferType;
 import com.suvrat.movieofferservice.offer.repository.OfferRedemptionRepository;
 import com.suvrat.movieofferservice.offer.repository.OfferRepository;
+import com.suvrat.movieofferservice.offer.repository.OfferUserUsageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +67,41 @@ class OfferServiceTest {
     @Mock
     private OfferRedemptionRepository offerRedemptionRepository;
 
+    @Mock
+    private OfferUserUsageRepository offerUserUsageRepository;
+
+    @Mock
+    private OfferCatalogIndex offerCatalogIndex;
+
+    @Mock
+    private CatalogSnapshot catalogSnapshot;
+
+    @Mock
+    private OfferCodeCache offerCodeCache;
+
+    @Mock
+    private BookingIdempotencyCache bookingIdempotencyCache;
+
+    @Spy
+    private EvaluateResultCache evaluateResultCache = new EvaluateResultCache(new OfferProperties());
+
+    @Spy
+    private EligibilityChain eligibilityChain = new EligibilityChain(new OfferProperties());
+
+    @Mock
+    private FlashSaleCounters flashSaleCounters;
+
+    @Spy
+    private OfferProperties offerProperties = new OfferProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private OfferMetrics offerMetrics = new OfferMetrics(meterRegistry);
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private OfferService offerService;
 
@@ -47,6 +110,10 @@ class OfferServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(offerCatalogIndex.snapshot()).thenReturn(catalogSnapshot);
+
         createOfferRequest = new CreateOfferRequest(
                 "test10",
                 "Test Offer",
@@ -66,7 +133,8 @@ class OfferServiceTest {
                 null,
                 OfferOrigin.INTERNAL,
                 null,
-                null
+                null,
+                false
         );
 
         activeOffer = Offer.builder()
@@ -84,6 +152,8 @@ class OfferServiceTest {
                 .perUserUsageLimit(2)
                 .active(true)
                 .offerOrigin(OfferOrigin.INTERNAL)
+                .flashSale(false)
+                .redeemedCount(0L)
                 .build();
     }
 
@@ -97,15 +167,19 @@ class OfferServiceTest {
         ArgumentCaptor<Offer> offerCaptor = ArgumentCaptor.forClass(Offer.class);
         verify(offerRepository).save(offerCaptor.capture());
         assertEquals("TEST10", offerCaptor.getValue().getCode());
+        verify(offerCodeCache).register(offerCaptor.getValue());
+        verify(offerCatalogIndex).refresh();
     }
 
     @Test
     void applyOffer_shouldUseLockedLookupAndReturnCalculatedAmounts() {
-        when(offerRedemptionRepository.existsByBookingId("booking-1")).thenReturn(false);
-        when(offerRepository.findByCode("TEST10")).thenReturn(Optional.of(activeOffer));
-        when(offerRedemptionRepository.countByOffer(activeOffer)).thenReturn(0L);
-        when(offerRedemptionRepository.countByOfferAndUserId(activeOffer, "user-1")).thenReturn(0L);
-        when(offerRedemptionRepository.save(any(OfferRedemption.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        offerProperties.getRedemption().setStrategy(RedemptionStrategy.PESSIMISTIC_LOCK);
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerUserUsageRepository.claimUserSlot(1L, "user-1", 2)).thenReturn(1);
+        when(offerRedemptionRepository.saveAndFlush(any(OfferRedemption.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(offerRepository.claimRedemptionSlot(1L)).thenReturn(1);
 
         ApplyOfferResponse response = offerService.applyOffer(new ApplyOfferRequest(
                 "test10",
@@ -121,10 +195,135 @@ class OfferServiceTest {
         assertEquals("TEST10", response.code());
         assertEquals(new BigDecimal("50.00"), response.discountAmount());
         assertEquals(new BigDecimal("450.00"), response.finalPayable());
+        verify(flashSaleCounters, never()).tryReserve(any());
+    }
+
+    @Test
+    void applyOffer_shouldClaimSlotWithoutRowLockForConditionalUpdateStrategy() {
+        offerProperties.getRedemption().setStrategy(RedemptionStrategy.CONDITIONAL_UPDATE);
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerUserUsageRepository.claimUserSlot(1L, "user-1", 2)).thenReturn(1);
+        when(offerRedemptionRepository.saveAndFlush(any(OfferRedemption.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(offerRepository.claimRedemptionSlot(1L)).thenReturn(0);
+
+        assertThrows(OfferValidationException.class, () -> offerService.applyOffer(new ApplyOfferRequest(
+                "TEST10",
+                "user-1",
+                "booking-1",
+                "movie-1",
+                "theater-1",
+                "CARD",
+                null,
+                new BigDecimal("500")
+        )));
+
+        verify(offerRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void applyOffer_shouldRetryConditionalUpdateOnConcurrencyFailure() {
+        offerProperties.getRedemption().setStrategy(RedemptionStrategy.CONDITIONAL_UPDATE);
+        offerProperties.getRedemption().setInitialBackoff(Duration.ZERO);
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerUserUsageRepository.claimUserSlot(1L, "user-1", 2)).thenReturn(1);
+        when(offerRedemptionRepository.saveAndFlush(any(OfferRedemption.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(offerRepository.claimRedemptionSlot(1L))
+                .thenThrow(new CannotAcquireLockException("row busy"))
+                .thenReturn(1);
+
+        ApplyOfferResponse response = offerService.applyOffer(new ApplyOfferRequest(
+                "TEST10",
+                "user-1",
+                "booking-1",
+                "movie-1",
+                "theater-1",
+                "CARD",
+                null,
+                new BigDecimal("500")
+        ));
+
+        assertEquals(new BigDecimal("50.00"), response.discountAmount());
+        verify(offerRepository, times(2)).claimRedemptionSlot(1L);
+    }
+
+    @Test
+    void applyOffer_shouldReserveFlashSaleSlotWithoutLockingOfferRow() {
+        activeOffer.setFlashSale(true);
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(flashSaleCounters.tryReserve(activeOffer)).thenReturn(false);
+
+        assertThrows(OfferValidationException.class, () -> offerService.applyOffer(new ApplyOfferRequest(
+                "TEST10",
+                "user-1",
+                "booking-1",
+                "movie-1",
+                "theater-1",
+                "CARD",
+                null,
+                new BigDecimal("500")
+        )));
+
+        verify(offerRepository, never()).findByIdForUpdate(any());
+        verify(offerRedemptionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void applyOffer_shouldStillClaimRedemptionSlotForFlashSale() {
+        activeOffer.setFlashSale(true);
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(flashSaleCounters.tryReserve(activeOffer)).thenReturn(true);
+        when(offerUserUsageRepository.claimUserSlot(1L, "user-1", 2)).thenReturn(1);
+        when(offerRedemptionRepository.saveAndFlush(any(OfferRedemption.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(offerRepository.claimRedemptionSlot(1L)).thenReturn(0);
+
+        OfferValidationException exception = assertThrows(OfferValidationException.class, () ->
+                offerService.applyOffer(new ApplyOfferRequest(
+                        "TEST10", "user-1", "booking-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"))));
+
+        assertEquals("Offer usage limit reached", exception.getMessage());
+    }
+
+    @Test
+    void applyOffer_shouldRejectWhenPerUserSlotCannotBeClaimed() {
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerUserUsageRepository.claimUserSlot(1L, "user-1", 2)).thenReturn(0);
+
+        assertThrows(OfferValidationException.class, () -> offerService.applyOffer(new ApplyOfferRequest(
+                "TEST10",
+                "user-1",
+                "booking-1",
+                "movie-1",
+                "theater-1",
+                "CARD",
+                null,
+                new BigDecimal("500")
+        )));
+
+        verify(offerRedemptionRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void applyOffer_shouldRejectUnknownCodeWithoutLoadingOffer() {
+        when(offerCodeCache.resolve("BOGUS")).thenReturn(Optional.empty());
+
+        OfferValidationException exception = assertThrows(OfferValidationException.class, () ->
+                offerService.applyOffer(new ApplyOfferRequest(
+                        "bogus", "user-1", "booking-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")
+                )));
+
+        assertEquals("Offer not found", exception.getMessage());
+        verify(offerRepository, never()).findById(any());
+        verify(offerRepository, never()).findByIdForUpdate(any());
     }
 
     @Test
     void applyOffer_shouldFailWhenBookingAlreadyHasOffer() {
+        when(bookingIdempotencyCache.mightExist("booking-1")).thenReturn(true);
         when(offerRedemptionRepository.existsByBookingId("booking-1")).thenReturn(true);
 
         assertThrows(OfferValidationException.class, () -> offerService.applyOffer(new ApplyOfferRequest(
@@ -138,25 +337,245 @@ class OfferServiceTest {
                 new BigDecimal("500")
         )));
 
-        verify(offerRepository, never()).findByCode(any());
+        verify(offerCodeCache, never()).resolve(any());
+    }
+
+    @Test
+    void applyOffer_shouldReplayOriginalResponseForIdenticalRetry() {
+        ApplyOfferResponse original = new ApplyOfferResponse("TEST10", "booking-1", new BigDecimal("500.00"),
+                new BigDecimal("50.00"), new BigDecimal("450.00"));
+        when(bookingIdempotencyCache.recent("booking-1")).thenReturn(Optional.of(
+                new AppliedBooking("TEST10", "user-1", new BigDecimal("500"), original)));
+
+        ApplyOfferResponse response = offerService.applyOffer(new ApplyOfferRequest(
+                "test10", "user-1", " booking-1 ", "movie-1", "theater-1", "CARD", null, new BigDecimal("500.00")
+        ));
+
+        assertSame(original, response);
+        verify(offerRedemptionRepository, never()).existsByBookingId(any());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void applyOffer_shouldRejectDifferentRequestForRecentlyAppliedBooking() {
+        ApplyOfferResponse original = new ApplyOfferResponse("TEST10", "booking-1", new BigDecimal("500.00"),
+                new BigDecimal("50.00"), new BigDecimal("450.00"));
+        when(bookingIdempotencyCache.recent("booking-1")).thenReturn(Optional.of(
+                new AppliedBooking("TEST10", "user-1", new BigDecimal("500"), original)));
+
+        OfferValidationException exception = assertThrows(OfferValidationException.class, () ->
+                offerService.applyOffer(new ApplyOfferRequest(
+                        "TEST10", "user-2", "booking-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")
+                )));
+
+        assertEquals("Offer already applied for this booking", exception.getMessage());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void evaluateOffers_shouldReturnOnlyTopDiscountsWhenLimitIsSet() {
+        List<Offer> candidates = List.of(
+                offer(11L, "FLAT100", OfferType.FLAT, "100", null),
+                offer(12L, "FLAT80", OfferType.FLAT, "80", null),
+                offer(13L, "PCT10", OfferType.PERCENTAGE, "10", "60"),
+                offer(14L, "FLAT20", OfferType.FLAT, "20", null));
+        when(offerCatalogIndex.eligibleOffers(any(), any(), any(), any())).thenReturn(candidates);
+        when(offerUserUsageRepository.findUsageByOfferIds(any(), any())).thenReturn(List.of());
+
+        List<EvaluatedOfferResponse> top = offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), 2));
+        List<EvaluatedOfferResponse> all = offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null));
+
+        assertEquals(List.of("FLAT100", "FLAT80"), top.stream().map(EvaluatedOfferResponse::code).toList());
+        assertEquals(new BigDecimal("400.00"), top.getFirst().finalPayable());
+        assertEquals(all.subList(0, 2), top);
+        assertEquals(List.of("FLAT100", "FLAT80", "PCT10", "FLAT20"),
+                all.stream().map(EvaluatedOfferResponse::code).toList());
+    }
+
+    @Test
+    void evaluateOffers_shouldRecordStageTimingsAndOfferCounts() {
+        when(offerCatalogIndex.eligibleOffers(any(), any(), any(), any())).thenReturn(List.of(
+                offer(11L, "FLAT100", OfferType.FLAT, "100", null),
+                offer(12L, "PCT10", OfferType.PERCENTAGE, "10", "60")));
+        when(offerUserUsageRepository.findUsageByOfferIds(any(), any())).thenReturn(List.of());
+
+        offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null));
+
+        for (String stage : List.of("eligibility", "usage_lookup", "discount", "sort")) {
+            assertEquals(1, meterRegistry.get("offers.stage").tag("stage", stage).timer().count(), stage);
+        }
+        assertEquals(0, meterRegistry.get("offers.stage").tag("stage", "redemption_insert").timer().count());
+        assertEquals(2.0, meterRegistry.get("offers.evaluate.offers").tag("outcome", "candidate").counter().count());
+        assertEquals(2.0, meterRegistry.get("offers.evaluate.offers").tag("outcome", "eligible").counter().count());
+    }
+
+    @Test
+    void evaluateOffers_shouldEmitEvaluationEvent() throws Exception {
+        when(offerCatalogIndex.eligibleOffers(any(), any(), any(), any())).thenReturn(List.of(
+                offer(11L, "FLAT100", OfferType.FLAT, "100", null),
+                offer(12L, "FLAT80", OfferType.FLAT, "80", null)));
+        when(offerUserUsageRepository.findUsageByOfferIds(any(), any())).thenReturn(List.of());
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(OfferEvaluationEvent.class);
+            recording.start();
+            offerService.evaluateOffers(new EvaluateOffersRequest(
+                    " user-1 ", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), 1));
+            recording.stop();
+            Path file = Files.createTempFile("offer-evaluation", ".jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.suvrat.offers.Evaluation"))
+                    .toList();
+            Files.delete(file);
+        }
+
+        assertEquals(1, events.size());
+        assertEquals(2, events.getFirst().getInt("candidateCount"));
+        assertEquals(1, events.getFirst().getInt("eligibleCount"));
+        assertEquals("user-1".hashCode(), events.getFirst().getInt("userIdHash"));
+    }
+
+    @Test
+    void evaluateOffers_shouldServeRepeatedBookingContextFromCacheUntilUserRedeems() {
+        when(offerCatalogIndex.eligibleOffers(any(), any(), any(), any())).thenReturn(List.of(
+                offer(11L, "FLAT100", OfferType.FLAT, "100", null)));
+        when(offerUserUsageRepository.findUsageByOfferIds(any(), any())).thenReturn(List.of());
+
+        List<EvaluatedOfferResponse> first = offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null));
+        List<EvaluatedOfferResponse> repeated = offerService.evaluateOffers(new EvaluateOffersRequest(
+                " user-1 ", "movie-1", "theater-1", "CARD", null, new BigDecimal("500.00"), null));
+        offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-2", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null));
+
+        assertSame(first, repeated);
+        verify(offerCatalogIndex, times(2)).eligibleOffers(any(), any(), any(), any());
+
+        evaluateResultCache.evictUser("user-1");
+        offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null));
+        offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-2", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null));
+
+        verify(offerCatalogIndex, times(3)).eligibleOffers(any(), any(), any(), any());
+    }
+
+    @Test
+    void evaluateOffers_shouldRecomputeWhenCatalogGenerationChanges() {
+        when(offerCatalogIndex.eligibleOffers(any(), any(), any(), any())).thenReturn(List.of(
+                offer(11L, "FLAT100", OfferType.FLAT, "100", null)));
+        when(offerUserUsageRepository.findUsageByOfferIds(any(), any())).thenReturn(List.of());
+        when(offerCatalogIndex.generation()).thenReturn(1L, 2L);
+        EvaluateOffersRequest request = new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), null);
+
+        offerService.evaluateOffers(request);
+        offerService.evaluateOffers(request);
+
+        verify(offerCatalogIndex, times(2)).eligibleOffers(any(), any(), any(), any());
+    }
+
+    @Test
+    void applyOffer_shouldEvictOnlyRedeemingUserWhileOfferHasStock() {
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerUserUsageRepository.claimUserSlot(1L, "user-1", 2)).thenReturn(1);
+        when(offerRedemptionRepository.saveAndFlush(any(OfferRedemption.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(offerRepository.claimRedemptionSlot(1L)).thenReturn(1);
+        when(offerRepository.findRedeemedCountById(1L)).thenReturn(99L);
+
+        offerService.applyOffer(new ApplyOfferRequest(
+                "TEST10", "user-1", "booking-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")));
+
+        verify(evaluateResultCache).evictUser("user-1");
+        verify(evaluateResultCache, never()).evictAll();
+    }
+
+    @Test
+    void applyOffer_shouldEvictAllUsersWhenOfferSellsOut() {
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerUserUsageRepository.claimUserSlot(1L, "user-1", 2)).thenReturn(1);
+        when(offerRedemptionRepository.saveAndFlush(any(OfferRedemption.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(offerRepository.claimRedemptionSlot(1L)).thenReturn(1);
+        when(offerRepository.findRedeemedCountById(1L)).thenReturn(100L);
+
+        offerService.applyOffer(new ApplyOfferRequest(
+                "TEST10", "user-1", "booking-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500")));
+
+        verify(evaluateResultCache).evictAll();
+    }
+
+    @Test
+    void evaluateOffers_shouldRejectNonPositiveLimit() {
+        assertThrows(OfferValidationException.class, () -> offerService.evaluateOffers(new EvaluateOffersRequest(
+                "user-1", "movie-1", "theater-1", "CARD", null, new BigDecimal("500"), 0)));
+    }
+
+    @Test
+    void listAppliedOffers_shouldReturnPageWithNextCursorWhenMoreRowsExist() {
+        LocalDateTime redeemedAt = LocalDateTime.now();
+        List<OfferRedemption> redemptions = List.of(
+                redemption(12L, "booking-9", redeemedAt),
+                redemption(11L, "booking-8", redeemedAt),
+                redemption(10L, "booking-7", redeemedAt.minusMinutes(1)));
+        when(offerCodeCache.resolve("TEST10")).thenReturn(Optional.of(1L));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(activeOffer));
+        when(offerRedemptionRepository.findPage("user-9", 1L, null, null, null, null, 3)).thenReturn(redemptions);
+
+        AppliedOffersPage page = offerService.listAppliedOffers(
+                new AppliedOffersQuery(" user-9 ", "test10", null, null, null, 2));
+
+        assertEquals(2, page.items().size());
+        assertEquals("TEST10", page.items().getFirst().offerCode());
+        assertEquals(new BigDecimal("360.00"), page.items().getFirst().finalPayable());
+
+        when(offerRedemptionRepository.findPage("user-9", 1L, null, null, redeemedAt, 11L, 3)).thenReturn(List.of());
+        offerService.listAppliedOffers(new AppliedOffersQuery("user-9", "TEST10", null, null, page.nextCursor(), 2));
+        verify(offerRedemptionRepository).findPage("user-9", 1L, null, null, redeemedAt, 11L, 3);
     }
 
     @Test
-    void listAppliedOffers_shouldReturnMappedResponse() {
-        OfferRedemption redemption = OfferRedemption.builder()
+    void listAppliedOffers_shouldRejectMalformedCursorAndOversizedPage() {
+        assertThrows(OfferValidationException.class, () -> offerService.listAppliedOffers(
+                new AppliedOffersQuery(null, null, null, null, "not-a-cursor", null)));
+        assertThrows(OfferValidationException.class, () -> offerService.listAppliedOffers(
+                new AppliedOffersQuery(null, null, null, null, null, 201)));
+    }
+
+    private Offer offer(Long id, String code, OfferType offerType, String discountValue, String maxDiscount) {
+        return Offer.builder()
+                .id(id)
+                .code(code)
+                .title(code)
+                .offerType(offerType)
+                .discountValue(new BigDecimal(discountValue))
+                .maxDiscount(maxDiscount == null ? null : new BigDecimal(maxDiscount))
+                .minOrderAmount(BigDecimal.ZERO)
+                .validFrom(LocalDateTime.now().minusDays(1))
+                .validTill(LocalDateTime.now().plusDays(1))
+                .perUserUsageLimit(1)
+                .active(true)
+                .offerOrigin(OfferOrigin.INTERNAL)
+                .flashSale(false)
+                .redeemedCount(0L)
+                .build();
+    }
+
+    private OfferRedemption redemption(Long id, String bookingId, LocalDateTime redeemedAt) {
+        return OfferRedemption.builder()
+                .id(id)
                 .offer(activeOffer)
-                .bookingId("booking-9")
+                .bookingId(bookingId)
                 .userId("user-9")
                 .orderAmount(new BigDecimal("400"))
                 .discountAmount(new BigDecimal("40"))
-                .redeemedAt(LocalDateTime.now())
+                .redeemedAt(redeemedAt)
                 .build();
-        when(offerRedemptionRepository.findAllByOrderByRedeemedAtDesc()).thenReturn(List.of(redemption));
-
-        List<AppliedOfferResponse> responses = offerService.listAppliedOffers();
-
-        assertEquals(1, responses.size());
-        assertEquals("TEST10", responses.getFirst().offerCode());
-        assertEquals(new BigDecimal("360.00"), responses.getFirst().finalPayable());
     }
 }
@@ -0,0 +1,4 @@
+INSERT INTO offer_redemptions (id, offer_id, user_id, booking_id, order_amount, discount_amount, redeemed_at)
+SELECT 1, o.id, 'legacy-user', 'legacy-booking-1', 500.00, 100.00, CURRENT_TIMESTAMP
+FROM offers o
+WHERE o.code = 'WELCOME20';